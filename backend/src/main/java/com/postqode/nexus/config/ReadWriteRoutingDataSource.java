@@ -0,0 +1,132 @@
+package com.postqode.nexus.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ *
+ * The decision is made when a connection is first needed, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: by the first
+ * statement the transaction's read-only flag is known. Work outside a transaction goes to
+ * the primary.
+ *
+ * Replicas lag behind, so after a user's read-write transaction commits their read-only
+ * transactions stay on the primary for {@code pinMs} and they see their own writes.
+ * Loads that fill a cache shared by all users run through {@link #onPrimary}, since a
+ * lagging replica row would be served to everyone until the entry expires.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final int MAX_PINNED_USERS = 100_000;
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> pinnedUsers;
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter pinnedCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long pinMs, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.pinnedUsers = Caffeine.newBuilder()
+                .maximumSize(MAX_PINNED_USERS)
+                .expireAfterWrite(Duration.ofMillis(pinMs))
+                .build();
+        this.primaryCounter = routedCounter(meterRegistry, Target.PRIMARY);
+        this.replicaCounter = routedCounter(meterRegistry, Target.REPLICA);
+        this.pinnedCounter = Counter.builder("datasource.routing.pinned")
+                .description("Read-only transactions kept on the primary after the user's own write")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} with its connections taken from the primary, read-only or not. Only
+     * affects connections obtained inside it, so call it outside any transaction.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (FORCE_PRIMARY.get() != null) {
+            return work.get();
+        }
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, Target target) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connections handed out by the read/write routing DataSource")
+                .tag("target", target.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = route();
+        (target == Target.PRIMARY ? primaryCounter : replicaCounter).increment();
+        return target;
+    }
+
+    private Target route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || FORCE_PRIMARY.get() != null) {
+            return Target.PRIMARY;
+        }
+        String user = currentUser();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null) {
+                pinAfterCommit(user);
+            }
+            return Target.PRIMARY;
+        }
+        if (user != null && pinnedUsers.getIfPresent(user) != null) {
+            pinnedCounter.increment();
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    private void pinAfterCommit(String user) {
+        // Pinning now as well covers reads made while a long write is still running
+        pinnedUsers.put(user, Boolean.TRUE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pinnedUsers.put(user, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
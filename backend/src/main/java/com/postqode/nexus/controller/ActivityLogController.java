@@ -0,0 +1,45 @@
+package com.postqode.nexus.controller;
+
+import com.postqode.nexus.dto.ActivityLogStateResponse;
+import com.postqode.nexus.service.ActivityLogHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/activity-logs")
+@RequiredArgsConstructor
+@Tag(name = "Activity Log", description = "Audit trail of product changes")
+@SecurityRequirement(name = "bearerAuth")
+public class ActivityLogController {
+
+    private final ActivityLogHistoryService activityLogHistoryService;
+
+    @GetMapping("/{id}/state")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get full before/after state",
+            description = "Full views of the object before and after the change, rebuilt from earlier entries when the entry stores only a diff (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully reconstructed the entry"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin only"),
+            @ApiResponse(responseCode = "404", description = "Activity log entry not found")
+    })
+    public ResponseEntity<ActivityLogStateResponse> getState(
+            @Parameter(description = "Activity log entry ID") @PathVariable UUID id) {
+        return activityLogHistoryService.getState(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
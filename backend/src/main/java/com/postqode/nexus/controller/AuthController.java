@@ -6,6 +6,7 @@ import com.postqode.nexus.dto.RegisterRequest;
 import com.postqode.nexus.dto.UserResponse;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.AuthenticatedUser;
 import com.postqode.nexus.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,7 +18,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -71,15 +71,11 @@ public class AuthController {
                         @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing token", content = @Content)
         })
         @GetMapping("/me")
-        public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
-                User user = userRepository.findByUsername(userDetails.getUsername())
+        public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal AuthenticatedUser principal) {
+                // Only the email is not carried by the principal; fetch the row by primary key
+                User user = userRepository.findById(principal.getId())
                                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-                return ResponseEntity.ok(UserResponse.builder()
-                                .id(user.getId())
-                                .username(user.getUsername())
-                                .email(user.getEmail())
-                                .role(user.getRole().name())
-                                .build());
+                return ResponseEntity.ok(UserResponse.from(user));
         }
 }
@@ -0,0 +1,76 @@
+package com.postqode.nexus.controller;
+
+import com.postqode.nexus.service.ExportService;
+import com.postqode.nexus.service.ExportService.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/export")
+@RequiredArgsConstructor
+@Tag(name = "Export", description = "Streaming CSV and NDJSON exports")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/products")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export products", description = "Stream all products as CSV or NDJSON (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
+    })
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "CSV or NDJSON") @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return stream("products", format, out -> exportService.exportProducts(format, out));
+    }
+
+    @GetMapping("/orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export orders", description = "Stream all orders with user and product details as CSV or NDJSON (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
+    })
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "CSV or NDJSON") @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        return stream("orders", format, out -> exportService.exportOrders(format, out));
+    }
+
+    @GetMapping("/activity-logs")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export activity logs", description = "Stream the activity log as CSV or NDJSON (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
+    })
+    public ResponseEntity<StreamingResponseBody> exportActivityLogs(
+            @Parameter(description = "CSV or NDJSON") @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return stream("activity-logs", format, out -> exportService.exportActivityLogs(format, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
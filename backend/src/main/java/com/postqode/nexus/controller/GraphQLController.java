@@ -1,5 +1,6 @@
 package com.postqode.nexus.controller;
 
+import com.postqode.nexus.dto.ProductCursorPage;
 import com.postqode.nexus.dto.ProductResponse;
 import com.postqode.nexus.dto.graphql.*;
 import com.postqode.nexus.model.ProductStatus;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.Hidden;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
@@ -52,6 +54,11 @@ public class GraphQLController implements GraphQLQueryResolver {
                 .build();
     }
 
+    public ProductCursorPage productScroll(String search, ProductStatus status, String after, Integer first) {
+        int size = first != null ? first : 10;
+        return productService.getProductsByCursor(status, null, search, after, size, Sort.unsorted());
+    }
+
     public ProductResponse product(UUID id) {
         return productService.getProduct(id);
     }
@@ -1,8 +1,11 @@
 package com.postqode.nexus.controller;
 
+import com.postqode.nexus.dto.OrderBatchRequest;
+import com.postqode.nexus.dto.OrderCursorPage;
+import com.postqode.nexus.dto.OrderResponse;
 import com.postqode.nexus.model.Order;
-import com.postqode.nexus.model.User;
-import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.AuthenticatedUser;
+import com.postqode.nexus.service.OrderBatchService;
 import com.postqode.nexus.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,13 +13,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -31,18 +36,45 @@ public class OrderController {
     private OrderService orderService;
 
     @Autowired
-    private UserRepository userRepository;
+    private OrderBatchService orderBatchService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Get all orders", description = "Retrieve a list of all orders (Admin only)")
+    @Operation(summary = "Get all orders", description = "Retrieve a list of all orders (Admin only). Use /scroll for large order volumes")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved orders"),
             @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
     })
-    public ResponseEntity<List<Order>> getAllOrders() {
+    public ResponseEntity<List<OrderResponse>> getAllOrders() {
         List<Order> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok(orders.stream().map(OrderResponse::from).toList());
+    }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Scroll orders by cursor",
+            description = "Keyset-paginated order listing, newest first, as flat rows. Returns nextCursor instead of page numbers " +
+                    "and skips the total count (Admin only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved orders"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
+    })
+    public ResponseEntity<OrderCursorPage> scrollOrders(
+            @Parameter(description = "Filter by order status") @RequestParam(required = false) Order.OrderStatus status,
+            @Parameter(description = "Filter by user ID") @RequestParam(required = false) UUID userId,
+            @Parameter(description = "Filter by product ID") @RequestParam(required = false) UUID productId,
+            @Parameter(description = "Created at or after (ISO date-time)") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Created before (ISO date-time)") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor from a previous response; omit for the first window") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Window size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(orderService.getOrdersByCursor(status, userId, productId, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/my-orders")
@@ -50,11 +82,9 @@ public class OrderController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved user orders")
     })
-    public ResponseEntity<List<Order>> getMyOrders(Authentication authentication) {
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        List<Order> orders = orderService.getOrdersByUserId(user.getId());
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<OrderResponse>> getMyOrders(@Parameter(hidden = true) AuthenticatedUser currentUser) {
+        List<Order> orders = orderService.getOrdersByUserId(currentUser.getId());
+        return ResponseEntity.ok(orders.stream().map(OrderResponse::from).toList());
     }
 
     @GetMapping("/status/{status}")
@@ -64,10 +94,10 @@ public class OrderController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved orders"),
             @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
     })
-    public ResponseEntity<List<Order>> getOrdersByStatus(
+    public ResponseEntity<List<OrderResponse>> getOrdersByStatus(
             @Parameter(description = "Order status") @PathVariable Order.OrderStatus status) {
         List<Order> orders = orderService.getOrdersByStatus(status);
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok(orders.stream().map(OrderResponse::from).toList());
     }
 
     @GetMapping("/{id}")
@@ -76,10 +106,10 @@ public class OrderController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved order"),
             @ApiResponse(responseCode = "404", description = "Order not found")
     })
-    public ResponseEntity<Order> getOrderById(
+    public ResponseEntity<OrderResponse> getOrderById(
             @Parameter(description = "Order ID") @PathVariable UUID id) {
         Order order = orderService.getOrderById(id);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok(OrderResponse.from(order));
     }
 
     @PostMapping
@@ -90,16 +120,14 @@ public class OrderController {
     })
     public ResponseEntity<?> createOrder(
             @RequestBody Map<String, Object> orderRequest,
-            Authentication authentication) {
+            @Parameter(hidden = true) AuthenticatedUser currentUser) {
         try {
-            User user = userRepository.findByUsername(authentication.getName())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
             UUID productId = UUID.fromString((String) orderRequest.get("productId"));
             Integer quantity = Integer.parseInt(orderRequest.get("quantity").toString());
-            UUID userId = user.getId();
+            UUID userId = currentUser.getId();
 
             Order order = orderService.createOrder(userId, productId, quantity);
-            return ResponseEntity.status(HttpStatus.CREATED).body(order);
+            return ResponseEntity.status(HttpStatus.CREATED).body(OrderResponse.from(order));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -118,7 +146,7 @@ public class OrderController {
             @Parameter(description = "Order ID") @PathVariable UUID id) {
         try {
             Order order = orderService.approveOrder(id);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(OrderResponse.from(order));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -137,7 +165,43 @@ public class OrderController {
             @Parameter(description = "Order ID") @PathVariable UUID id) {
         try {
             Order order = orderService.rejectOrder(id);
-            return ResponseEntity.ok(order);
+            return ResponseEntity.ok(OrderResponse.from(order));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/approve-batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Approve orders in batch",
+            description = "Approve many pending orders in one transaction (Admin only). Stock is allocated in "
+                    + "request order; orders that cannot be approved are reported per order and stay unchanged.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see the per-order results"),
+            @ApiResponse(responseCode = "400", description = "No order ids or too many order ids"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
+    })
+    public ResponseEntity<?> approveOrders(@Valid @RequestBody OrderBatchRequest request) {
+        try {
+            return ResponseEntity.ok(orderBatchService.approveOrders(request.getOrderIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/reject-batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reject orders in batch",
+            description = "Reject many pending orders in one statement (Admin only). Orders that are not pending "
+                    + "are reported per order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see the per-order results"),
+            @ApiResponse(responseCode = "400", description = "No order ids or too many order ids"),
+            @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
+    })
+    public ResponseEntity<?> rejectOrders(@Valid @RequestBody OrderBatchRequest request) {
+        try {
+            return ResponseEntity.ok(orderBatchService.rejectOrders(request.getOrderIds()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -152,12 +216,10 @@ public class OrderController {
     })
     public ResponseEntity<?> cancelOrder(
             @Parameter(description = "Order ID") @PathVariable UUID id,
-            Authentication authentication) {
+            @Parameter(hidden = true) AuthenticatedUser currentUser) {
         try {
-            User user = userRepository.findByUsername(authentication.getName())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
-            Order order = orderService.cancelOrder(id, user.getId());
-            return ResponseEntity.ok(order);
+            Order order = orderService.cancelOrder(id, currentUser.getId());
+            return ResponseEntity.ok(OrderResponse.from(order));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -13,6 +13,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1/preferences")
 @RequiredArgsConstructor
@@ -29,13 +31,12 @@ public class PreferencesController {
         @ApiResponse(responseCode = "400", description = "Invalid profile parameter"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    public ResponseEntity<PreferencesMetadataResponse> getMetadata(
+    public CompletableFuture<ResponseEntity<PreferencesMetadataResponse>> getMetadata(
             @RequestParam(required = true) String profile) {
         try {
-            PreferencesMetadataResponse metadata = preferencesService.getMetadata(profile);
-            return ResponseEntity.ok(metadata);
+            return preferencesService.getMetadata(profile).thenApply(ResponseEntity::ok);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
     }
 
@@ -46,13 +47,12 @@ public class PreferencesController {
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
-    public ResponseEntity<PreferencesSubmitResponse> submitPreferences(
+    public CompletableFuture<ResponseEntity<PreferencesSubmitResponse>> submitPreferences(
             @RequestBody PreferencesSubmitRequest request) {
         try {
-            PreferencesSubmitResponse response = preferencesService.submitPreferences(request);
-            return ResponseEntity.ok(response);
+            return preferencesService.submitPreferences(request).thenApply(ResponseEntity::ok);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
     }
 }
@@ -1,8 +1,12 @@
 package com.postqode.nexus.controller;
 
+import com.postqode.nexus.dto.ProductCursorPage;
+import com.postqode.nexus.dto.ProductImportResponse;
 import com.postqode.nexus.dto.ProductRequest;
 import com.postqode.nexus.dto.ProductResponse;
 import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.service.ProductImportService;
+import com.postqode.nexus.service.ProductImportService.ImportFormat;
 import com.postqode.nexus.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,12 +20,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.SortDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 @RestController
@@ -32,6 +40,7 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
     @Operation(
             summary = "Get all products",
@@ -52,11 +61,48 @@ public class ProductController {
     public ResponseEntity<Page<ProductResponse>> getProducts(
             @Parameter(description = "Filter by product status") @RequestParam(required = false) ProductStatus status,
             @Parameter(description = "Filter by category ID") @RequestParam(required = false) UUID categoryId,
-            @Parameter(description = "Search by product name or SKU") @RequestParam(required = false) String search,
+            @Parameter(description = "Search by product name, SKU or description (relevance-ranked unless a sort is given)") @RequestParam(required = false) String search,
             @Parameter(description = "Pagination parameters (page, size, sort)") @PageableDefault(size = 10) Pageable pageable) {
         return ResponseEntity.ok(productService.getProducts(status, categoryId, search, pageable));
     }
 
+    @Operation(
+            summary = "Scroll products by cursor",
+            description = "Keyset-paginated product listing. Returns nextCursor instead of page numbers and skips the total count. " +
+                    "Sortable by name, sku, price, quantity, createdAt or updatedAt (default createdAt,desc)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Products retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ProductCursorPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor, size or sort property",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - Invalid or missing token",
+                    content = @Content
+            )
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<ProductCursorPage> scrollProducts(
+            @Parameter(description = "Filter by product status") @RequestParam(required = false) ProductStatus status,
+            @Parameter(description = "Filter by category ID") @RequestParam(required = false) UUID categoryId,
+            @Parameter(description = "Search by product name or SKU") @RequestParam(required = false) String search,
+            @Parameter(description = "Cursor from a previous response; omit for the first window") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Window size (1-100)") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort for the first window (property,direction)") @SortDefault(sort = "createdAt", direction = Sort.Direction.DESC) Sort sort) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByCursor(status, categoryId, search, cursor, size, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(
             summary = "Get product by ID",
             description = "Retrieve a single product by its UUID"
@@ -111,6 +157,43 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(request), HttpStatus.CREATED);
     }
 
+    @Operation(
+            summary = "Bulk import products",
+            description = "Stream products as CSV (header row with sku, name, description, price, quantity, categoryId) " +
+                    "or NDJSON (one product request per line). Valid rows are imported in one transaction; " +
+                    "invalid, duplicate or conflicting rows are reported per row (Admin only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished",
+                    content = @Content(schema = @Schema(implementation = ProductImportResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing or invalid CSV header",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden - Admin role required",
+                    content = @Content
+            )
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "application/json", "text/plain"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @Parameter(description = "Input format; defaults from the Content-Type") @RequestParam(required = false) ImportFormat format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        try {
+            ImportFormat resolved = format != null ? format : ImportFormat.fromContentType(contentType);
+            return ResponseEntity.ok(productImportService.importProducts(body, resolved));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(
             summary = "Update product",
             description = "Update an existing product (Admin only)"
@@ -1,6 +1,7 @@
 package com.postqode.nexus.controller;
 
 import com.postqode.nexus.dto.UserRequest;
+import com.postqode.nexus.dto.UserResponse;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,9 +36,9 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved users"),
             @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
     })
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserResponse>> getAllUsers() {
         List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok(users.stream().map(UserResponse::from).toList());
     }
 
     @GetMapping("/{id}")
@@ -48,9 +49,10 @@ public class UserController {
             @ApiResponse(responseCode = "404", description = "User not found"),
             @ApiResponse(responseCode = "403", description = "Access denied - Admin only")
     })
-    public ResponseEntity<User> getUserById(
+    public ResponseEntity<UserResponse> getUserById(
             @Parameter(description = "User ID") @PathVariable UUID id) {
         return userService.getUserById(id)
+                .map(UserResponse::from)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -66,7 +68,7 @@ public class UserController {
     public ResponseEntity<?> createUser(@RequestBody UserRequest userRequest) {
         try {
             User createdUser = userService.createUser(userRequest);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.from(createdUser));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -86,7 +88,7 @@ public class UserController {
             @RequestBody UserRequest userRequest) {
         try {
             User updatedUser = userService.updateUser(id, userRequest);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(UserResponse.from(updatedUser));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -1,8 +1,8 @@
 package com.postqode.nexus.controller;
 
-import com.postqode.nexus.model.User;
+import com.postqode.nexus.dto.UserInventoryResponse;
 import com.postqode.nexus.model.UserInventory;
-import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.AuthenticatedUser;
 import com.postqode.nexus.service.UserInventoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,7 +13,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -29,19 +28,14 @@ public class UserInventoryController {
     @Autowired
     private UserInventoryService userInventoryService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @GetMapping
     @Operation(summary = "Get current user's inventory", description = "Retrieve inventory items for the authenticated user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved inventory")
     })
-    public ResponseEntity<List<UserInventory>> getMyInventory(Authentication authentication) {
-        User user = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        List<UserInventory> inventory = userInventoryService.getUserInventory(user.getId());
-        return ResponseEntity.ok(inventory);
+    public ResponseEntity<List<UserInventoryResponse>> getMyInventory(@Parameter(hidden = true) AuthenticatedUser currentUser) {
+        List<UserInventory> inventory = userInventoryService.getUserInventory(currentUser.getId());
+        return ResponseEntity.ok(inventory.stream().map(UserInventoryResponse::from).toList());
     }
 
     @GetMapping("/{id}")
@@ -50,10 +44,10 @@ public class UserInventoryController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved inventory item"),
             @ApiResponse(responseCode = "404", description = "Inventory item not found")
     })
-    public ResponseEntity<UserInventory> getInventoryItemById(
+    public ResponseEntity<UserInventoryResponse> getInventoryItemById(
             @Parameter(description = "Inventory item ID") @PathVariable UUID id) {
         UserInventory item = userInventoryService.getInventoryItemById(id);
-        return ResponseEntity.ok(item);
+        return ResponseEntity.ok(UserInventoryResponse.from(item));
     }
 
     @PostMapping
@@ -64,16 +58,14 @@ public class UserInventoryController {
     })
     public ResponseEntity<?> addManualItem(
             @RequestBody Map<String, Object> inventoryRequest,
-            Authentication authentication) {
+            @Parameter(hidden = true) AuthenticatedUser currentUser) {
         try {
-            User user = userRepository.findByUsername(authentication.getName())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
             String name = (String) inventoryRequest.get("name");
             Integer quantity = Integer.parseInt(inventoryRequest.get("quantity").toString());
             String notes = (String) inventoryRequest.getOrDefault("notes", "");
 
-            UserInventory item = userInventoryService.addManualItem(user.getId(), name, quantity, notes);
-            return ResponseEntity.status(HttpStatus.CREATED).body(item);
+            UserInventory item = userInventoryService.addManualItem(currentUser.getId(), name, quantity, notes);
+            return ResponseEntity.status(HttpStatus.CREATED).body(UserInventoryResponse.from(item));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -89,16 +81,14 @@ public class UserInventoryController {
     public ResponseEntity<?> updateInventoryItem(
             @Parameter(description = "Inventory item ID") @PathVariable UUID id,
             @RequestBody Map<String, Object> inventoryRequest,
-            Authentication authentication) {
+            @Parameter(hidden = true) AuthenticatedUser currentUser) {
         try {
-            User user = userRepository.findByUsername(authentication.getName())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
             String name = (String) inventoryRequest.get("name");
             Integer quantity = Integer.parseInt(inventoryRequest.get("quantity").toString());
             String notes = (String) inventoryRequest.getOrDefault("notes", "");
 
-            UserInventory item = userInventoryService.updateInventoryItem(id, user.getId(), name, quantity, notes);
-            return ResponseEntity.ok(item);
+            UserInventory item = userInventoryService.updateInventoryItem(id, currentUser.getId(), name, quantity, notes);
+            return ResponseEntity.ok(UserInventoryResponse.from(item));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -113,11 +103,9 @@ public class UserInventoryController {
     })
     public ResponseEntity<Void> deleteInventoryItem(
             @Parameter(description = "Inventory item ID") @PathVariable UUID id,
-            Authentication authentication) {
+            @Parameter(hidden = true) AuthenticatedUser currentUser) {
         try {
-            User user = userRepository.findByUsername(authentication.getName())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
-            userInventoryService.deleteInventoryItem(id, user.getId());
+            userInventoryService.deleteInventoryItem(id, currentUser.getId());
             return ResponseEntity.noContent().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -134,22 +122,20 @@ public class UserInventoryController {
     public ResponseEntity<?> consumeInventoryItem(
             @Parameter(description = "Inventory item ID") @PathVariable UUID id,
             @RequestBody Map<String, Integer> request,
-            Authentication authentication) {
+            @Parameter(hidden = true) AuthenticatedUser currentUser) {
         try {
-            User user = userRepository.findByUsername(authentication.getName())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
             Integer quantity = request.get("quantity");
             if (quantity == null) {
                 return ResponseEntity.badRequest().body("Quantity is required");
             }
 
-            UserInventory updatedItem = userInventoryService.consumeInventoryItem(id, user.getId(), quantity);
+            UserInventory updatedItem = userInventoryService.consumeInventoryItem(id, currentUser.getId(), quantity);
 
             if (updatedItem == null) {
                 return ResponseEntity.ok(Map.of("message", "Item fully consumed and removed from inventory"));
             } else {
-                return ResponseEntity.ok(updatedItem);
+                return ResponseEntity.ok(UserInventoryResponse.from(updatedItem));
             }
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -0,0 +1,34 @@
+package com.postqode.nexus.dto;
+
+import com.postqode.nexus.model.ActionType;
+import com.postqode.nexus.model.ActivityValueFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Full before and after views of the object an activity log entry changed, rebuilt from
+ * earlier entries when the entry itself only stores a diff. {@code complete} is false when
+ * the entry could not be traced back to a full snapshot (the product was deleted, or its
+ * older entries were dropped by retention); before and after then hold only the changed fields.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogStateResponse {
+    private UUID id;
+    private UUID userId;
+    private UUID productId;
+    private ActionType actionType;
+    private ActivityValueFormat valueFormat;
+    private LocalDateTime createdAt;
+    private Map<String, Object> before;
+    private Map<String, Object> after;
+    private boolean complete;
+}
@@ -0,0 +1,20 @@
+package com.postqode.nexus.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchRequest {
+
+    @NotEmpty(message = "At least one order id is required")
+    private List<UUID> orderIds;
+}
@@ -0,0 +1,38 @@
+package com.postqode.nexus.dto;
+
+import com.postqode.nexus.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a batch approval or rejection, one result per distinct order id in request order.
+ * {@code status} is the order's status after the batch, or null when the order does not exist;
+ * failed results carry the same message the single-order endpoint would have returned.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResponse {
+
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<Result> results;
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private UUID orderId;
+        private boolean success;
+        private Order.OrderStatus status;
+        private String message;
+    }
+}
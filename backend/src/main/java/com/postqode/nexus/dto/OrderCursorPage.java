@@ -0,0 +1,24 @@
+package com.postqode.nexus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One window of the keyset-paginated order listing, newest first.
+ * Pass {@code nextCursor} back to fetch the following window; it is null on the last one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCursorPage {
+
+    private List<OrderSummaryResponse> items;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+}
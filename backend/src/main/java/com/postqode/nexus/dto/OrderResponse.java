@@ -0,0 +1,72 @@
+package com.postqode.nexus.dto;
+
+import com.postqode.nexus.model.Order;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An order with the parts of its user and product that clients show.
+ * Build it from an order loaded with {@link Order#WITH_DETAILS} or a fetch join.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderResponse {
+
+    private UUID id;
+    private OrderUser user;
+    private OrderProduct product;
+    private Integer quantity;
+    private Order.OrderStatus status;
+    private LocalDateTime reservationExpiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderUser {
+        private UUID id;
+        private String username;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderProduct {
+        private UUID id;
+        private String sku;
+        private String name;
+        private BigDecimal price;
+        private Integer quantity;
+        private ProductStatus status;
+    }
+
+    public static OrderResponse from(Order order) {
+        User user = order.getUser();
+        Product product = order.getProduct();
+        return OrderResponse.builder()
+                .id(order.getId())
+                .user(new OrderUser(user.getId(), user.getUsername()))
+                .product(new OrderProduct(product.getId(), product.getSku(), product.getName(),
+                        product.getPrice(), product.getQuantity(), product.getStatus()))
+                .quantity(order.getQuantity())
+                .status(order.getStatus())
+                .reservationExpiresAt(order.getReservationExpiresAt())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.postqode.nexus.dto;
+
+import com.postqode.nexus.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat row of the order listing, projected straight from one join of orders, users and
+ * products; no entities are loaded.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+
+    private UUID id;
+    private UUID userId;
+    private String username;
+    private UUID productId;
+    private String productSku;
+    private String productName;
+    private Integer quantity;
+    private Order.OrderStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.postqode.nexus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One window of a keyset-paginated product listing.
+ * Pass {@code nextCursor} back to fetch the following window; it is null on the last one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCursorPage {
+
+    private List<ProductResponse> items;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+}
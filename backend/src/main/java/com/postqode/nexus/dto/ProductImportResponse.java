@@ -0,0 +1,37 @@
+package com.postqode.nexus.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk product import.
+ * Rows are numbered from 1 in input order, not counting the CSV header or blank lines.
+ * At most {@code app.product-import.max-errors} errors are listed; {@code rejected} always has the full count.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+
+    private String format;
+    private long totalRows;
+    private long imported;
+    private long rejected;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private long durationMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String sku;
+        private String message;
+    }
+}
@@ -22,6 +22,7 @@ public class ProductResponse {
     private String description;
     private BigDecimal price;
     private Integer quantity;
+    private Integer reservedQuantity;
     private ProductStatus status;
     private UUID categoryId;
     private String categoryName;
@@ -29,4 +30,14 @@ public class ProductResponse {
     private String updatedBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    /**
+     * Available-to-promise: stock not held by PENDING orders.
+     */
+    public Integer getAvailableQuantity() {
+        if (quantity == null) {
+            return null;
+        }
+        return reservedQuantity != null ? quantity - reservedQuantity : quantity;
+    }
 }
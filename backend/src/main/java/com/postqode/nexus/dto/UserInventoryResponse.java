@@ -0,0 +1,45 @@
+package com.postqode.nexus.dto;
+
+import com.postqode.nexus.model.UserInventory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An inventory item. The user and product are only referenced by id, which the item's
+ * foreign keys already hold, so nothing beyond the item row needs to be loaded.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserInventoryResponse {
+
+    private UUID id;
+    private UUID userId;
+    private UUID productId;
+    private String name;
+    private Integer quantity;
+    private UserInventory.InventorySource source;
+    private String notes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static UserInventoryResponse from(UserInventory item) {
+        return UserInventoryResponse.builder()
+                .id(item.getId())
+                .userId(item.getUser().getId())
+                .productId(item.getProduct() != null ? item.getProduct().getId() : null)
+                .name(item.getName())
+                .quantity(item.getQuantity())
+                .source(item.getSource())
+                .notes(item.getNotes())
+                .createdAt(item.getCreatedAt())
+                .updatedAt(item.getUpdatedAt())
+                .build();
+    }
+}
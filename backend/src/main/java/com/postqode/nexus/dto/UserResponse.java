@@ -1,10 +1,12 @@
 package com.postqode.nexus.dto;
 
+import com.postqode.nexus.model.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
@@ -16,4 +18,19 @@ public class UserResponse {
     private String username;
     private String email;
     private String role;
+    private Boolean isEnabled;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static UserResponse from(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .role(user.getRole().name())
+                .isEnabled(user.getIsEnabled())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
 }
@@ -1,6 +1,7 @@
 package com.postqode.nexus.dto.graphql;
 
 import com.postqode.nexus.model.ActionType;
+import com.postqode.nexus.model.ActivityValueFormat;
 import lombok.Builder;
 import lombok.Data;
 
@@ -13,6 +14,7 @@ public class ActivityLogResponse {
     private String username;
     private String productName;
     private ActionType actionType;
+    private ActivityValueFormat valueFormat;
     private String oldValue;
     private String newValue;
     private String createdAt;
@@ -6,5 +6,6 @@ public enum ActionType {
     DELETE,
     STATE_CHANGE,
     LOGIN,
-    LOGOUT
+    LOGOUT,
+    BULK_IMPORT
 }
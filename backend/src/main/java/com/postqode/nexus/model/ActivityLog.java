@@ -22,7 +22,7 @@ import java.util.UUID;
 public class ActivityLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,6 +45,11 @@ public class ActivityLog {
     @Column(name = "new_value", columnDefinition = "jsonb")
     private Map<String, Object> newValue;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "value_format", nullable = false)
+    @Builder.Default
+    private ActivityValueFormat valueFormat = ActivityValueFormat.FULL;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
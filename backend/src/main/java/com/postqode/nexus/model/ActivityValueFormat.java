@@ -0,0 +1,11 @@
+package com.postqode.nexus.model;
+
+/**
+ * How an activity log entry stores its old_value and new_value.
+ */
+public enum ActivityValueFormat {
+    /** Complete before and after views of the object */
+    FULL,
+    /** Only the fields that changed, with their old and new values */
+    DIFF
+}
@@ -0,0 +1,30 @@
+package com.postqode.nexus.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running dashboard total, maintained by database triggers on products
+ * (see V10__dashboard_counters.sql).
+ */
+@Entity
+@Table(name = "dashboard_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardCounter {
+
+    public static final String PRODUCTS_TOTAL = "products_total";
+    public static final String STATUS_PREFIX = "status:";
+    public static final String PRODUCTS_ADDED = "products_added";
+    public static final String ACTIONS = "actions";
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private Long value;
+}
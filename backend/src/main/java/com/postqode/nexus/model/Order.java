@@ -8,10 +8,17 @@ import org.hibernate.type.SqlTypes;
 
 @Entity
 @Table(name = "orders")
+@NamedEntityGraph(name = Order.WITH_DETAILS, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("product")
+})
 public class Order {
 
+    /** Fetch plan for everything an order response shows: the ordering user and the product. */
+    public static final String WITH_DETAILS = "Order.withDetails";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,6 +37,10 @@ public class Order {
     @Column(columnDefinition = "order_status", nullable = false)
     private OrderStatus status;
 
+    /** Set while the order holds its stock reservation; cleared when it leaves PENDING or expires. */
+    @Column(name = "reservation_expires_at")
+    private LocalDateTime reservationExpiresAt;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -99,6 +110,14 @@ public class Order {
         this.status = status;
     }
 
+    public LocalDateTime getReservationExpiresAt() {
+        return reservationExpiresAt;
+    }
+
+    public void setReservationExpiresAt(LocalDateTime reservationExpiresAt) {
+        this.reservationExpiresAt = reservationExpiresAt;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -21,7 +21,7 @@ import java.util.UUID;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(unique = true, nullable = false, length = 50, columnDefinition = "VARCHAR(50)")
@@ -39,6 +39,14 @@ public class Product {
     @Column(nullable = false)
     private Integer quantity;
 
+    /**
+     * Units held by PENDING orders. Only changed by the conditional UPDATEs in ProductRepository
+     * and OrderBatchService, never by saving the entity, so an edit cannot overwrite a reservation.
+     */
+    @Builder.Default
+    @Column(name = "reserved_quantity", nullable = false, insertable = false, updatable = false)
+    private Integer reservedQuantity = 0;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private ProductStatus status;
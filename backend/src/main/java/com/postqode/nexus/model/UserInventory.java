@@ -11,7 +11,7 @@ import org.hibernate.type.SqlTypes;
 public class UserInventory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,19 @@
+package com.postqode.nexus.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate the id as a time-ordered UUIDv7 (RFC 9562), for tables that mostly grow by
+ * appending. New keys land at the right edge of the primary key index instead of on a
+ * random page. Use instead of {@code @GeneratedValue}.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
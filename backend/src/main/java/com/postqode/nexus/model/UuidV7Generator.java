@@ -0,0 +1,49 @@
+package com.postqode.nexus.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7: 48 bits of Unix epoch milliseconds, then 12 bits that count up within the same
+ * millisecond, then 62 random bits. Ids from this JVM are strictly increasing; if more than
+ * 4096 are taken in one millisecond the clock part runs ahead until real time catches up.
+ * The database default {@code uuid_generate_v7()} (V12) shares the timestamp and version
+ * bits but fills those 12 bits at random, so ids it generates within one millisecond are
+ * not ordered among themselves or against ids from here.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Unix milliseconds << 12 | counter of the last id handed out
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+
+    public static UUID generate() {
+        long candidate = System.currentTimeMillis() << 12;
+        long timestampAndCounter = LAST_TIMESTAMP_AND_COUNTER.updateAndGet(last -> Math.max(last + 1, candidate));
+
+        long mostSignificant = (timestampAndCounter >>> 12) << 16  // unix_ts_ms
+                | 0x7000L                                           // version
+                | (timestampAndCounter & 0xFFFL);                   // counter (rand_a)
+        long leastSignificant = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL
+                | 0x8000000000000000L;                              // variant 10
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return generate();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+}
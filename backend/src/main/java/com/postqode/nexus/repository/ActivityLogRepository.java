@@ -1,6 +1,7 @@
 package com.postqode.nexus.repository;
 
 import com.postqode.nexus.model.ActivityLog;
+import com.postqode.nexus.model.ActivityValueFormat;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -24,11 +25,48 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, UUID>
     @Query("SELECT COUNT(a) FROM ActivityLog a WHERE a.createdAt >= CURRENT_DATE")
     long countActionsToday();
 
-    @Query("SELECT a.user.id as userId, COUNT(a) as count, MAX(a.createdAt) as lastAction " +
-            "FROM ActivityLog a " +
-            "WHERE a.createdAt >= :since " +
-            "GROUP BY a.user.id")
-    List<Object[]> getUserActivityStats(@Param("since") LocalDateTime since);
+    /**
+     * Per-user action counts since the given instant. Whole days come from the
+     * activity_user_daily rollup; only the partial first day is counted from activity_logs.
+     */
+    @Query(value = "SELECT COALESCE(u.username, 'Unknown') AS \"username\", " +
+            "SUM(s.action_count) AS \"actionCount\", MAX(s.last_action) AS \"lastAction\" " +
+            "FROM (" +
+            "  SELECT r.user_id, r.action_count, r.last_action FROM activity_user_daily r " +
+            "  WHERE r.day > CAST(:since AS date) " +
+            "  UNION ALL " +
+            "  SELECT a.user_id, COUNT(*), MAX(a.created_at) FROM activity_logs a " +
+            "  WHERE a.created_at >= :since AND a.created_at < CAST(:since AS date) + 1 " +
+            "  AND a.user_id IS NOT NULL " +
+            "  GROUP BY a.user_id" +
+            ") s " +
+            "LEFT JOIN users u ON u.id = s.user_id " +
+            "GROUP BY s.user_id, u.username " +
+            "HAVING SUM(s.action_count) > 0 " +
+            "ORDER BY 2 DESC, 1",
+            nativeQuery = true)
+    List<UserActivityStats> getUserActivityStats(@Param("since") LocalDateTime since);
+
+    /**
+     * The product's entries of one value format up to the given time, newest first.
+     * Used to find the full entry a run of diffs starts from.
+     */
+    @Query("SELECT a FROM ActivityLog a WHERE a.product.id = :productId AND a.valueFormat = :format " +
+            "AND a.createdAt <= :until ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findLatestByProduct(@Param("productId") UUID productId,
+                                          @Param("format") ActivityValueFormat format,
+                                          @Param("until") LocalDateTime until,
+                                          Pageable pageable);
+
+    /**
+     * The product's entries of one value format in [from, until], oldest first.
+     */
+    @Query("SELECT a FROM ActivityLog a WHERE a.product.id = :productId AND a.valueFormat = :format " +
+            "AND a.createdAt >= :from AND a.createdAt <= :until ORDER BY a.createdAt, a.id")
+    List<ActivityLog> findByProductBetween(@Param("productId") UUID productId,
+                                           @Param("format") ActivityValueFormat format,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("until") LocalDateTime until);
 
     @org.springframework.data.jpa.repository.Modifying
     @Query("UPDATE ActivityLog a SET a.product = null WHERE a.product.id = :productId")
@@ -0,0 +1,28 @@
+package com.postqode.nexus.repository;
+
+import com.postqode.nexus.model.DashboardCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DashboardCounterRepository extends JpaRepository<DashboardCounter, String> {
+
+    /**
+     * Running totals plus today's daily counters as (name, value) rows.
+     */
+    @Query(value = "SELECT name, value FROM dashboard_counters " +
+            "UNION ALL " +
+            "SELECT name, value FROM dashboard_daily_counters WHERE day = CURRENT_DATE",
+            nativeQuery = true)
+    List<Object[]> findCurrentValues();
+
+    /**
+     * Recompute all counters from the source tables; returns the number that had drifted.
+     */
+    @Query(value = "SELECT reconcile_dashboard_counters(:keepDays)", nativeQuery = true)
+    int reconcile(@Param("keepDays") int keepDays);
+}
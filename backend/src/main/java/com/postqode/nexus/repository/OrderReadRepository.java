@@ -0,0 +1,17 @@
+package com.postqode.nexus.repository;
+
+import com.postqode.nexus.dto.OrderSummaryResponse;
+import com.postqode.nexus.model.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Read path that projects orders directly into {@link OrderSummaryResponse}, with the
+ * username and product details joined into the same statement.
+ */
+public interface OrderReadRepository {
+
+    List<OrderSummaryResponse> findSummaries(Specification<Order> spec, Sort sort, int limit);
+}
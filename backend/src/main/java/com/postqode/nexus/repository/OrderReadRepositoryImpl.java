@@ -0,0 +1,54 @@
+package com.postqode.nexus.repository;
+
+import com.postqode.nexus.dto.OrderSummaryResponse;
+import com.postqode.nexus.model.Order;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+public class OrderReadRepositoryImpl implements OrderReadRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummaryResponse> findSummaries(Specification<Order> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryResponse> query = cb.createQuery(OrderSummaryResponse.class);
+        Root<Order> root = query.from(Order.class);
+        Join<Order, User> user = root.join("user");
+        Join<Order, Product> product = root.join("product");
+
+        query.select(cb.construct(OrderSummaryResponse.class,
+                root.get("id"),
+                user.get("id"),
+                user.get("username"),
+                product.get("id"),
+                product.get("sku"),
+                product.get("name"),
+                root.get("quantity"),
+                root.get("status"),
+                root.get("createdAt"),
+                root.get("updatedAt")));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
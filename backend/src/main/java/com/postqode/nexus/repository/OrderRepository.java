@@ -2,24 +2,38 @@ package com.postqode.nexus.repository;
 
 import com.postqode.nexus.model.Order;
 import com.postqode.nexus.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderReadRepository {
 
     List<Order> findByUser(User user);
 
     List<Order> findByUserId(UUID userId);
 
+    @EntityGraph(Order.WITH_DETAILS)
     List<Order> findByStatus(Order.OrderStatus status);
 
+    /**
+     * Loads the user and product with the order; every caller either returns the order or
+     * needs its user and product anyway.
+     */
+    @Override
+    @EntityGraph(Order.WITH_DETAILS)
+    Optional<Order> findById(UUID id);
+
     List<Order> findByUserAndStatus(User user, Order.OrderStatus status);
 
     List<Order> findByUserIdAndStatus(UUID userId, Order.OrderStatus status);
@@ -32,4 +46,24 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     @Query("SELECT o FROM Order o JOIN FETCH o.user JOIN FETCH o.product WHERE o.id = :id")
     Optional<Order> findByIdWithDetails(@Param("id") UUID id);
+
+    /**
+     * Load an order and lock its row until commit, so whether it still holds a stock
+     * reservation cannot change before its status does.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o JOIN FETCH o.user JOIN FETCH o.product WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Move an order from one status to another only if it is still in the expected status,
+     * dropping its stock reservation marker. Returns 0 when another transaction got there first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = :now, o.reservationExpiresAt = NULL " +
+            "WHERE o.id = :id AND o.status = :from")
+    int transitionStatus(@Param("id") UUID id,
+            @Param("from") Order.OrderStatus from,
+            @Param("to") Order.OrderStatus to,
+            @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,22 @@
+package com.postqode.nexus.repository;
+
+import com.postqode.nexus.dto.ProductResponse;
+import com.postqode.nexus.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Read path that projects products directly into {@link ProductResponse}.
+ * Category and audit usernames are joined into the same statement instead of
+ * being resolved through lazy associations.
+ */
+public interface ProductReadRepository {
+
+    Page<ProductResponse> findResponses(Specification<Product> spec, Pageable pageable);
+
+    List<ProductResponse> findResponses(Specification<Product> spec, Sort sort, int limit);
+}
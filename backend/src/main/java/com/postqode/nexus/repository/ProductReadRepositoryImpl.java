@@ -0,0 +1,92 @@
+package com.postqode.nexus.repository;
+
+import com.postqode.nexus.dto.ProductResponse;
+import com.postqode.nexus.model.Category;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class ProductReadRepositoryImpl implements ProductReadRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductResponse> findResponses(Specification<Product> spec, Pageable pageable) {
+        TypedQuery<ProductResponse> query = entityManager.createQuery(selectResponses(spec, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        // Count is skipped when the content already tells us the total (e.g. a short last page)
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ProductResponse> findResponses(Specification<Product> spec, Sort sort, int limit) {
+        return entityManager.createQuery(selectResponses(spec, sort))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private CriteriaQuery<ProductResponse> selectResponses(Specification<Product> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponse> query = cb.createQuery(ProductResponse.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+        Join<Product, User> createdBy = root.join("createdBy", JoinType.LEFT);
+        Join<Product, User> updatedBy = root.join("updatedBy", JoinType.LEFT);
+
+        query.select(cb.construct(ProductResponse.class,
+                root.get("id"),
+                root.get("sku"),
+                root.get("name"),
+                root.get("description"),
+                root.get("price"),
+                root.get("quantity"),
+                root.get("reservedQuantity"),
+                root.get("status"),
+                category.get("id"),
+                category.get("name"),
+                createdBy.get("username"),
+                updatedBy.get("username"),
+                root.get("createdAt"),
+                root.get("updatedAt")));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
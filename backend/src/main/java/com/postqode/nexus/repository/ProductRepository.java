@@ -1,19 +1,24 @@
 package com.postqode.nexus.repository;
 
+import com.postqode.nexus.dto.ProductResponse;
 import com.postqode.nexus.model.Product;
 import com.postqode.nexus.model.ProductStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 @SuppressWarnings("unused")
-public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>,
+        ProductReadRepository {
 
     boolean existsBySku(String sku);
 
@@ -23,4 +28,87 @@ public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpec
 
     @Query("SELECT COUNT(p) FROM Product p WHERE p.createdAt >= CURRENT_DATE")
     long countProductsAddedToday();
+
+    @Query("SELECT new com.postqode.nexus.dto.ProductResponse(p.id, p.sku, p.name, p.description, p.price, " +
+            "p.quantity, p.reservedQuantity, p.status, c.id, c.name, cu.username, uu.username, p.createdAt, p.updatedAt) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.createdBy cu LEFT JOIN p.updatedBy uu " +
+            "WHERE p.id = :id")
+    Optional<ProductResponse> findResponseById(@Param("id") UUID id);
+
+    @Query("SELECT p.quantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") UUID id);
+
+    /**
+     * Available-to-promise: stock not held by PENDING orders, from the product row alone.
+     */
+    @Query("SELECT p.quantity - p.reservedQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findAvailableQuantityById(@Param("id") UUID id);
+
+    /**
+     * Atomically take stock that no order has reserved: the row is only updated when enough
+     * is left, so concurrent callers can never drive it negative. Returns 0 when stock is short.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity " +
+            "WHERE p.id = :id AND p.quantity - p.reservedQuantity >= :quantity")
+    int decrementStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    /**
+     * Atomically reserve stock for a new order, only when that much is neither sold nor
+     * reserved. Returns 0 when stock is short or the product does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity + :quantity " +
+            "WHERE p.id = :id AND p.quantity - p.reservedQuantity >= :quantity")
+    int reserveStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    /**
+     * Turn an order's reservation into a sale. Returns 0 when stock has since been lowered
+     * below the reserved quantity.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, " +
+            "p.reservedQuantity = p.reservedQuantity - :quantity " +
+            "WHERE p.id = :id AND p.quantity >= :quantity")
+    int takeReservedStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedQuantity = p.reservedQuantity - :quantity WHERE p.id = :id")
+    int releaseReservedStock(@Param("id") UUID id, @Param("quantity") int quantity);
+
+    /**
+     * Relevance-ranked search backed by the full-text and trigram indexes from V8.
+     * Full-text matches on name/description rank first, then trigram similarity on name.
+     * Category and audit usernames are joined in so a page is a single statement.
+     */
+    @Query(value = "SELECT p.id AS id, p.sku AS sku, p.name AS name, p.description AS description, " +
+            "p.price AS price, p.quantity AS quantity, p.reserved_quantity AS \"reservedQuantity\", p.status AS status, " +
+            "c.id AS \"categoryId\", c.name AS \"categoryName\", " +
+            "cu.username AS \"createdBy\", uu.username AS \"updatedBy\", " +
+            "p.created_at AS \"createdAt\", p.updated_at AS \"updatedAt\" " +
+            "FROM products p " +
+            "LEFT JOIN categories c ON c.id = p.category_id " +
+            "LEFT JOIN users cu ON cu.id = p.created_by " +
+            "LEFT JOIN users uu ON uu.id = p.updated_by " +
+            "WHERE (CAST(:status AS VARCHAR) IS NULL OR p.status = CAST(:status AS VARCHAR)) " +
+            "AND (CAST(:categoryId AS UUID) IS NULL OR p.category_id = CAST(:categoryId AS UUID)) " +
+            "AND (p.search_vector @@ websearch_to_tsquery('english', :term) " +
+            "OR lower(p.name) LIKE :pattern " +
+            "OR lower(p.sku) LIKE :pattern " +
+            "OR lower(p.description) LIKE :pattern) " +
+            "ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('english', :term)) DESC, " +
+            "similarity(lower(p.name), lower(:term)) DESC, p.id",
+            countQuery = "SELECT COUNT(*) FROM products p " +
+                    "WHERE (CAST(:status AS VARCHAR) IS NULL OR p.status = CAST(:status AS VARCHAR)) " +
+                    "AND (CAST(:categoryId AS UUID) IS NULL OR p.category_id = CAST(:categoryId AS UUID)) " +
+                    "AND (p.search_vector @@ websearch_to_tsquery('english', :term) " +
+                    "OR lower(p.name) LIKE :pattern " +
+                    "OR lower(p.sku) LIKE :pattern " +
+                    "OR lower(p.description) LIKE :pattern)",
+            nativeQuery = true)
+    Page<ProductSearchResult> searchRanked(@Param("term") String term,
+                                           @Param("pattern") String pattern,
+                                           @Param("status") String status,
+                                           @Param("categoryId") UUID categoryId,
+                                           Pageable pageable);
 }
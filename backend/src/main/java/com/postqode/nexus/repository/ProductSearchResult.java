@@ -0,0 +1,41 @@
+package com.postqode.nexus.repository;
+
+import com.postqode.nexus.model.ProductStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat row returned by the native ranked search; mirrors the columns of ProductResponse.
+ */
+public interface ProductSearchResult {
+
+    UUID getId();
+
+    String getSku();
+
+    String getName();
+
+    String getDescription();
+
+    BigDecimal getPrice();
+
+    Integer getQuantity();
+
+    Integer getReservedQuantity();
+
+    ProductStatus getStatus();
+
+    UUID getCategoryId();
+
+    String getCategoryName();
+
+    String getCreatedBy();
+
+    String getUpdatedBy();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,15 @@
+package com.postqode.nexus.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user activity aggregate returned by {@link ActivityLogRepository#getUserActivityStats}.
+ */
+public interface UserActivityStats {
+
+    String getUsername();
+
+    Long getActionCount();
+
+    LocalDateTime getLastAction();
+}
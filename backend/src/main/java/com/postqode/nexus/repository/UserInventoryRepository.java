@@ -2,12 +2,14 @@ package com.postqode.nexus.repository;
 
 import com.postqode.nexus.model.UserInventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import com.postqode.nexus.model.Product;
 
 @Repository
 public interface UserInventoryRepository extends JpaRepository<UserInventory, UUID> {
@@ -16,6 +18,34 @@ public interface UserInventoryRepository extends JpaRepository<UserInventory, UU
 
     List<UserInventory> findByUserIdAndSource(UUID userId, UserInventory.InventorySource source);
 
-    Optional<UserInventory> findByUserIdAndProductAndSource(UUID userId, Product product,
-            UserInventory.InventorySource source);
+    /**
+     * Add purchased units in one statement: inserts the user's PURCHASED row for the product, or
+     * adds to its quantity when it exists. The unique partial index from V16 arbitrates, so
+     * concurrent approvals for the same user and product merge instead of duplicating the row.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO user_inventory (user_id, product_id, name, quantity, source, notes, created_at, updated_at) "
+            + "VALUES (:userId, :productId, :name, :quantity, 'PURCHASED', :notes, LOCALTIMESTAMP, LOCALTIMESTAMP) "
+            + "ON CONFLICT (user_id, product_id) WHERE source = 'PURCHASED' "
+            + "DO UPDATE SET quantity = user_inventory.quantity + EXCLUDED.quantity, updated_at = LOCALTIMESTAMP", nativeQuery = true)
+    int upsertPurchased(@Param("userId") UUID userId,
+            @Param("productId") UUID productId,
+            @Param("name") String name,
+            @Param("quantity") int quantity,
+            @Param("notes") String notes);
+
+    /**
+     * Atomically take units from an item: the row is only updated when it belongs to the user
+     * and holds enough, so concurrent consumers neither lose a decrement nor drive it negative.
+     * Returns the updated row, or empty when nothing matched.
+     */
+    @Query(value = "UPDATE user_inventory SET quantity = quantity - :quantity, updated_at = LOCALTIMESTAMP "
+            + "WHERE id = :id AND user_id = :userId AND quantity >= :quantity RETURNING *", nativeQuery = true)
+    Optional<UserInventory> consume(@Param("id") UUID id,
+            @Param("userId") UUID userId,
+            @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserInventory i WHERE i.id = :id AND i.quantity = 0")
+    int deleteIfEmpty(@Param("id") UUID id);
 }
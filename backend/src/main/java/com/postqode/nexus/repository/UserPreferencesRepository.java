@@ -3,9 +3,14 @@ package com.postqode.nexus.repository;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.model.UserPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface UserPreferencesRepository extends JpaRepository<UserPreferences, Long> {
@@ -13,4 +18,19 @@ public interface UserPreferencesRepository extends JpaRepository<UserPreferences
     Optional<UserPreferences> findByUserAndProfile(User user, String profile);
     
     void deleteByUserAndProfile(User user, String profile);
+
+    /**
+     * Insert or replace a user's preferences for a profile in one statement,
+     * so concurrent submits for the same profile cannot collide on the unique key.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_preferences (user_id, profile, preferences_json) " +
+            "VALUES (:userId, :profile, :preferencesJson) " +
+            "ON CONFLICT (user_id, profile) DO UPDATE SET " +
+            "preferences_json = EXCLUDED.preferences_json, updated_at = CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int upsert(@Param("userId") UUID userId,
+               @Param("profile") String profile,
+               @Param("preferencesJson") String preferencesJson);
 }
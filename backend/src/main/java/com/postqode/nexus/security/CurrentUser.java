@@ -0,0 +1,55 @@
+package com.postqode.nexus.security;
+
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves the caller of the current request from the security context.
+ *
+ * The JWT filter already establishes an {@link AuthenticatedUser}, so this normally costs no query.
+ * Other principals (e.g. test users) fall back to a lookup by username.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private final UserRepository userRepository;
+
+    /**
+     * The authenticated caller, or empty for anonymous requests.
+     */
+    public Optional<AuthenticatedUser> find() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return userRepository.findByUsername(authentication.getName()).map(AuthenticatedUser::from);
+    }
+
+    public AuthenticatedUser get() {
+        return find().orElseThrow(() -> new IllegalArgumentException("User not found"));
+    }
+
+    public UUID getId() {
+        return get().getId();
+    }
+
+    /**
+     * A lazy reference to the caller's {@link User} for setting associations, without loading the row.
+     */
+    public User getReference() {
+        return userRepository.getReferenceById(getId());
+    }
+}
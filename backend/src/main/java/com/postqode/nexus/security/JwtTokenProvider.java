@@ -1,6 +1,7 @@
 package com.postqode.nexus.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -12,17 +13,26 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret:demo-secret-key-must-be-at-least-256-bits-long-for-security-purposes}")
-    private String jwtSecret;
+    private final long jwtExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
-    @Value("${jwt.expiration:604800000}")
-    private long jwtExpiration;
+    public JwtTokenProvider(
+            @Value("${jwt.secret:demo-secret-key-must-be-at-least-256-bits-long-for-security-purposes}") String jwtSecret,
+            @Value("${jwt.expiration:604800000}") long jwtExpiration,
+            @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.jwtExpiration = jwtExpiration;
+        // Key and parser are immutable and thread-safe, so they are built once instead of per token
+        this.signingKey = getSignInKey(jwtSecret);
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = verifiedCacheSize > 0 ? new VerifiedTokenCache(verifiedCacheSize) : null;
+    }
 
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
@@ -35,7 +45,7 @@ public class JwtTokenProvider {
                 .claim("roles", roles)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -44,42 +54,56 @@ public class JwtTokenProvider {
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Roles claim of a valid token, or null when the token is invalid or expired.
+     */
     public String getRolesFromToken(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("roles", String.class);
+        Claims claims = getValidatedClaims(token);
+        return claims != null ? claims.get("roles", String.class) : null;
     }
 
+    /**
+     * Subject of a valid token, or null when the token is invalid or expired.
+     */
     public String getUsernameFromToken(String token) {
-        return extractClaim(token, Claims::getSubject);
+        Claims claims = getValidatedClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verify the token and return its claims, or null when it is invalid or expired.
+     * Recently verified tokens are answered from a bounded cache until they expire.
+     */
+    public Claims getValidatedClaims(String token) {
         try {
-            extractAllClaims(token);
-            return true;
+            return extractAllClaims(token);
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public boolean validateToken(String token) {
+        return getValidatedClaims(token) != null;
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (verifiedTokens == null) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
+        String hash = VerifiedTokenCache.hash(token);
+        Claims claims = verifiedTokens.get(hash);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(hash, claims);
+        }
+        return claims;
     }
 
-    private SecretKey getSignInKey() {
+    private static SecretKey getSignInKey(String jwtSecret) {
         // Try to decode as Base64 first, if it fails, use the secret as plain text
         try {
             byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
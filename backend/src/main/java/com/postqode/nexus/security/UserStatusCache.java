@@ -0,0 +1,102 @@
+package com.postqode.nexus.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.postqode.nexus.config.ReadWriteRoutingDataSource;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.service.CacheInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small, bounded, TTL'd cache of account status used by stateless JWT authentication.
+ *
+ * Lets the filter trust token claims without a users lookup on every request while
+ * still honouring {@code disableUser} and role changes: changes evict after commit, here
+ * and, through the {@link CacheInvalidationBus}, on the other instances; the
+ * {@code jwt.status-cache-ttl-ms} TTL is the backstop should an invalidation get lost.
+ */
+@Component
+public class UserStatusCache {
+
+    /**
+     * Account status as of the last lookup; a missing user is cached as disabled.
+     */
+    public record UserStatus(UUID id, boolean enabled, UserRole role) {
+    }
+
+    private static final UserStatus MISSING = new UserStatus(null, false, null);
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<String, UserStatus> cache;
+    // Bumped before every eviction; a lookup only caches its result if no eviction happened meanwhile
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserStatusCache(UserRepository userRepository,
+                           CacheInvalidationBus invalidationBus,
+                           @Value("${jwt.status-cache-ttl-ms:30000}") long ttlMs,
+                           @Value("${jwt.status-cache-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        invalidationBus.subscribe(CacheInvalidationBus.Topic.USER, username -> {
+            if (username == null) {
+                generation.incrementAndGet();
+                cache.invalidateAll();
+            } else {
+                remove(username);
+            }
+        });
+    }
+
+    public UserStatus get(String username) {
+        UserStatus cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        long observed = generation.get();
+        // From the primary: a lagging replica could still show a just-disabled user as enabled
+        UserStatus status = ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findByUsername(username))
+                .map(user -> new UserStatus(user.getId(), Boolean.TRUE.equals(user.getIsEnabled()), user.getRole()))
+                .orElse(MISSING);
+        // A lookup that overlapped an eviction may have read the old row: use it once, never cache it.
+        // compute() serializes with invalidate() on the same key, so the check cannot go stale before the put.
+        cache.asMap().compute(username, (key, current) -> generation.get() == observed ? status : current);
+        return status;
+    }
+
+    /**
+     * Drop a user's cached status. Inside a transaction the eviction happens after commit, and
+     * a lookup still in flight from before it does not put its result back.
+     */
+    public void evict(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(username);
+                }
+            });
+        } else {
+            remove(username);
+        }
+        invalidationBus.publish(CacheInvalidationBus.Topic.USER, username);
+    }
+
+    private void remove(String username) {
+        generation.incrementAndGet();
+        cache.invalidate(username);
+    }
+}
@@ -0,0 +1,78 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.dto.ActivityLogStateResponse;
+import com.postqode.nexus.model.ActivityLog;
+import com.postqode.nexus.model.ActivityValueFormat;
+import com.postqode.nexus.repository.ActivityLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rebuilds full before/after views for activity log entries stored as diffs: starting from
+ * the product's latest full entry before it, the diffs in between are applied in order.
+ * The view is only marked complete if every diff, the requested one included, starts from
+ * the state rebuilt so far; a gap (an entry never written, or a dropped partition) or entries
+ * out of order show up as a diff whose old values do not match.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityLogHistoryService {
+
+    private final ActivityLogRepository activityLogRepository;
+
+    @Transactional(readOnly = true)
+    public Optional<ActivityLogStateResponse> getState(UUID id) {
+        return activityLogRepository.findById(id).map(this::reconstruct);
+    }
+
+    private ActivityLogStateResponse reconstruct(ActivityLog log) {
+        if (log.getValueFormat() == ActivityValueFormat.FULL) {
+            return response(log, log.getOldValue(), log.getNewValue(), true);
+        }
+
+        UUID productId = log.getProduct() != null ? log.getProduct().getId() : null;
+        ActivityLog base = productId == null ? null : activityLogRepository
+                .findLatestByProduct(productId, ActivityValueFormat.FULL, log.getCreatedAt(), PageRequest.of(0, 1))
+                .stream().findFirst().orElse(null);
+        if (base == null || base.getNewValue() == null) {
+            return response(log, log.getOldValue(), log.getNewValue(), false);
+        }
+
+        Map<String, Object> state = base.getNewValue();
+        boolean complete = true;
+        List<ActivityLog> changes = activityLogRepository.findByProductBetween(productId, ActivityValueFormat.DIFF,
+                base.getCreatedAt(), log.getCreatedAt());
+        for (ActivityLog change : changes) {
+            if (change.getId().equals(log.getId())) {
+                break;
+            }
+            complete &= ActivityValueDiff.follows(state, change.getOldValue());
+            state = ActivityValueDiff.apply(state, change.getNewValue());
+        }
+        complete &= ActivityValueDiff.follows(state, log.getOldValue());
+        return response(log, ActivityValueDiff.apply(state, log.getOldValue()),
+                ActivityValueDiff.apply(state, log.getNewValue()), complete);
+    }
+
+    private static ActivityLogStateResponse response(ActivityLog log, Map<String, Object> before,
+                                                     Map<String, Object> after, boolean complete) {
+        return ActivityLogStateResponse.builder()
+                .id(log.getId())
+                .userId(log.getUser() != null ? log.getUser().getId() : null)
+                .productId(log.getProduct() != null ? log.getProduct().getId() : null)
+                .actionType(log.getActionType())
+                .valueFormat(log.getValueFormat())
+                .createdAt(log.getCreatedAt())
+                .before(before)
+                .after(after)
+                .complete(complete)
+                .build();
+    }
+}
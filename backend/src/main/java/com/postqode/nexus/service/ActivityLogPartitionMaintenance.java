@@ -0,0 +1,154 @@
+package com.postqode.nexus.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of activity_logs (V13) in shape: partitions exist for the
+ * current month and {@code partitions-ahead} months after it, and with {@code retention-months}
+ * set, months that ended longer ago than that are detached and dropped.
+ *
+ * Dropping a partition does not fire the DELETE trigger, so the dashboard's daily counters and
+ * per-user rollups keep the counts of dropped days. Nodes take turns through an advisory lock.
+ */
+@Slf4j
+@Service
+public class ActivityLogPartitionMaintenance {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("activity_logs_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final long ADVISORY_LOCK_KEY = 0x6e657875_73000001L;
+
+    private static final String PARTITIONS_SQL = "SELECT c.relname, i.inhdetachpending FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'activity_logs'::regclass";
+
+    private record Partition(String name, YearMonth month, boolean detachPending) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitionsAhead;
+    private final int retentionMonths;
+
+    public ActivityLogPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           @Value("${app.activity-log.partitions-ahead:3}") int partitionsAhead,
+                                           @Value("${app.activity-log.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionsAhead = partitionsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(fixedDelayString = "${app.activity-log.partition-maintenance-interval-ms:21600000}",
+            initialDelayString = "${app.activity-log.partition-maintenance-initial-delay-ms:60000}")
+    public void maintain() {
+        maintain(LocalDate.now());
+    }
+
+    /**
+     * Runs outside a transaction: each statement commits on its own, and DETACH ... CONCURRENTLY
+     * is not allowed inside a transaction block.
+     */
+    void maintain(LocalDate today) {
+        jdbcTemplate.execute((Connection connection) -> {
+            if (!tryLock(connection)) {
+                log.debug("Activity log partition maintenance is running on another node");
+                return null;
+            }
+            try {
+                List<Partition> partitions = listPartitions(connection);
+                createMissing(connection, partitions, YearMonth.from(today));
+                dropExpired(connection, partitions, YearMonth.from(today));
+            } finally {
+                unlock(connection);
+            }
+            return null;
+        });
+    }
+
+    private void createMissing(Connection connection, List<Partition> partitions, YearMonth current)
+            throws SQLException {
+        for (int i = 0; i <= partitionsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (partitions.stream().noneMatch(partition -> partition.month().equals(month))) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT create_activity_logs_partition(?)")) {
+                    statement.setObject(1, month.atDay(1));
+                    statement.execute();
+                }
+                log.info("Created activity log partition for {}", month);
+            }
+        }
+    }
+
+    private void dropExpired(Connection connection, List<Partition> partitions, YearMonth current) {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (Partition partition : partitions) {
+            if (!partition.month().isBefore(oldestKept)) {
+                continue;
+            }
+            // CONCURRENTLY only blocks writers to this partition, not to activity_logs; a detach
+            // interrupted halfway is completed with FINALIZE on the next run
+            String detach = "ALTER TABLE activity_logs DETACH PARTITION " + partition.name()
+                    + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY");
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(detach);
+                statement.execute("DROP TABLE " + partition.name());
+                log.info("Dropped activity log partition for {}", partition.month());
+            } catch (SQLException e) {
+                log.warn("Could not drop activity log partition {}: {}", partition.name(), e.getMessage());
+            }
+        }
+    }
+
+    private static List<Partition> listPartitions(Connection connection) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(PARTITIONS_SQL)) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                Matcher matcher = PARTITION_NAME.matcher(name);
+                if (matcher.matches()) {
+                    partitions.add(new Partition(name, YearMonth.parse(matcher.group(1), PARTITION_MONTH),
+                            rs.getBoolean(2)));
+                } else {
+                    log.warn("Ignoring activity_logs partition {} that does not follow the naming scheme", name);
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            statement.execute();
+        }
+    }
+}
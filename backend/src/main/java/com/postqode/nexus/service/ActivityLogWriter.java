@@ -0,0 +1,424 @@
+package com.postqode.nexus.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.postqode.nexus.model.ActionType;
+import com.postqode.nexus.model.ActivityLog;
+import com.postqode.nexus.model.ActivityValueFormat;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.repository.ActivityLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for activity logs.
+ *
+ * Entries are queued after the surrounding transaction commits and a single writer thread
+ * JDBC-batch-inserts them, flushing when {@code flush-size} entries are pending or
+ * {@code flush-interval-ms} has passed since the oldest one was queued. When the queue is
+ * full the caller waits up to {@code offer-timeout-ms} and then writes the entry itself,
+ * so audit rows are never dropped. Pending entries are flushed on shutdown.
+ *
+ * With {@code app.activity-log.async=false} entries are saved synchronously inside the
+ * caller's transaction, as before.
+ *
+ * With {@code diff-values} on, an entry that has both an old and a new value for a product
+ * stores only the fields that changed (see {@link ActivityValueDiff}). The first such entry
+ * this node writes for a product, the first in each month, and every {@code snapshot-every}-th
+ * one after it keep the full values, so reconstructing an entry never walks far back or into
+ * a monthly partition that retention may already have dropped. The format is decided when the
+ * entry is written, so an entry that is never written does not take a snapshot's place.
+ */
+@Slf4j
+@Component
+public class ActivityLogWriter implements SmartLifecycle {
+
+    // product_id is resolved through a sub-select so a product deleted after the entry was
+    // queued is recorded as NULL instead of failing the whole batch on the foreign key
+    static final String INSERT_SQL = "INSERT INTO activity_logs "
+            + "(user_id, product_id, action_type, old_value, new_value, value_format, created_at) "
+            + "VALUES (?, (SELECT id FROM products WHERE id = ?), ?, CAST(? AS jsonb), CAST(? AS jsonb), ?, ?)";
+
+    private static final int MAX_TRACKED_PRODUCTS = 100_000;
+
+    private record StoredValues(Object oldValue, Object newValue) {
+    }
+
+    // Month of the product's last full snapshot written here, and the diffs written since
+    private record Snapshot(YearMonth month, int diffs) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityLogRepository activityLogRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean async;
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final boolean diffValues;
+    private final int snapshotEvery;
+    private final BlockingQueue<PendingActivity> queue;
+    private final Cache<UUID, Snapshot> snapshots;
+
+    private final Counter writtenCounter;
+    private final Counter directCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate,
+                             ActivityLogRepository activityLogRepository,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${app.activity-log.async:true}") boolean async,
+                             @Value("${app.activity-log.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.activity-log.flush-size:200}") int flushSize,
+                             @Value("${app.activity-log.flush-interval-ms:250}") long flushIntervalMs,
+                             @Value("${app.activity-log.offer-timeout-ms:100}") long offerTimeoutMs,
+                             @Value("${app.activity-log.shutdown-timeout-ms:10000}") long shutdownTimeoutMs,
+                             @Value("${app.activity-log.diff-values:true}") boolean diffValues,
+                             @Value("${app.activity-log.snapshot-every:20}") int snapshotEvery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.activityLogRepository = activityLogRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.async = async;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.diffValues = diffValues;
+        this.snapshotEvery = snapshotEvery;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.snapshots = Caffeine.newBuilder().maximumSize(MAX_TRACKED_PRODUCTS).build();
+
+        Gauge.builder("activity.log.queue.depth", queue, BlockingQueue::size)
+                .description("Activity log entries waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("activity.log.queue.lag", this, ActivityLogWriter::oldestPendingAgeMillis)
+                .description("Age of the oldest unwritten activity log entry")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("activity.log.written")
+                .description("Activity log entries written by the batch writer")
+                .register(meterRegistry);
+        this.directCounter = Counter.builder("activity.log.direct")
+                .description("Activity log entries written on the caller thread because the queue was full or stopped")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("activity.log.failed")
+                .description("Activity log entries that could not be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("activity.log.flush")
+                .description("Time to write one batch of activity log entries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a mutation. The value objects are serialized on the writer thread, so callers
+     * must pass snapshots that are not modified afterwards.
+     */
+    public void record(User user, Product product, ActionType actionType, Object oldValue, Object newValue) {
+        if (!async) {
+            saveInTransaction(user, product, actionType, oldValue, newValue);
+            return;
+        }
+
+        PendingActivity entry = new PendingActivity(
+                user != null ? user.getId() : null,
+                product != null ? product.getId() : null,
+                actionType,
+                oldValue,
+                newValue,
+                LocalDateTime.now());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    ActivityValueFormat valueFormat(UUID productId, Object oldValue, Object newValue, LocalDateTime createdAt) {
+        if (!diffValues || productId == null || oldValue == null || newValue == null) {
+            return ActivityValueFormat.FULL;
+        }
+        // 0 diffs marks a full snapshot: the first entry for a product seen here, the first in a
+        // new month (partition), then every snapshotEvery-th
+        YearMonth month = YearMonth.from(createdAt);
+        Snapshot snapshot = snapshots.asMap().compute(productId, (id, last) ->
+                last == null || !last.month().equals(month) || last.diffs() + 1 >= snapshotEvery
+                        ? new Snapshot(month, 0)
+                        : new Snapshot(month, last.diffs() + 1));
+        return snapshot.diffs() == 0 ? ActivityValueFormat.FULL : ActivityValueFormat.DIFF;
+    }
+
+    /**
+     * Decides the entry's format the first time it is bound, so a batch retried row by row
+     * keeps the formats it was given.
+     */
+    private ActivityValueFormat formatOf(PendingActivity entry) {
+        if (entry.format == null) {
+            entry.format = valueFormat(entry.productId, entry.oldValue, entry.newValue, entry.createdAt);
+        }
+        return entry.format;
+    }
+
+    private StoredValues storedValues(ActivityValueFormat format, Object oldValue, Object newValue) {
+        if (format == ActivityValueFormat.FULL) {
+            return new StoredValues(oldValue, newValue);
+        }
+        ActivityValueDiff.Changes changes = ActivityValueDiff.between(
+                objectMapper.valueToTree(oldValue), objectMapper.valueToTree(newValue));
+        return new StoredValues(changes.oldValues(), changes.newValues());
+    }
+
+    int pendingCount() {
+        return queue.size();
+    }
+
+    private void enqueue(PendingActivity entry) {
+        if (running) {
+            try {
+                entry.enqueuedNanos = System.nanoTime();
+                if (queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Backpressure: queue is full (or the writer is stopped), write on the caller thread
+        writeDirect(entry);
+        directCounter.increment();
+    }
+
+    private void saveInTransaction(User user, Product product, ActionType actionType, Object oldValue, Object newValue) {
+        UUID productId = product != null ? product.getId() : null;
+        ActivityValueFormat format = valueFormat(productId, oldValue, newValue, LocalDateTime.now());
+        if (format == ActivityValueFormat.FULL && productId != null
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rolled-back snapshot must not count: the next entry for the product is stored in full
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        snapshots.invalidate(productId);
+                    }
+                }
+            });
+        }
+        StoredValues values = storedValues(format, oldValue, newValue);
+        Map<String, Object> oldMap = values.oldValue() != null
+                ? objectMapper.convertValue(values.oldValue(), new TypeReference<Map<String, Object>>() {
+                })
+                : null;
+        Map<String, Object> newMap = values.newValue() != null
+                ? objectMapper.convertValue(values.newValue(), new TypeReference<Map<String, Object>>() {
+                })
+                : null;
+
+        activityLogRepository.save(ActivityLog.builder()
+                .user(user)
+                .product(product)
+                .actionType(actionType)
+                .oldValue(oldMap)
+                .newValue(newMap)
+                .valueFormat(format)
+                .build());
+        eventPublisher.publishEvent(new ActivityLoggedEvent(1));
+    }
+
+    private void drainLoop() {
+        List<PendingActivity> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingActivity first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.enqueuedNanos + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    PendingActivity next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown wake-up; keep draining until the queue is empty
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<PendingActivity> batch) {
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind));
+            writtenCounter.increment(batch.size());
+            eventPublisher.publishEvent(new ActivityLoggedEvent(batch.size()));
+        } catch (RuntimeException e) {
+            log.warn("Batch insert of {} activity log entries failed, retrying individually", batch.size(), e);
+            for (PendingActivity entry : batch) {
+                writeDirect(entry);
+            }
+        }
+    }
+
+    private void writeDirect(PendingActivity entry) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, entry));
+            writtenCounter.increment();
+            eventPublisher.publishEvent(new ActivityLoggedEvent(1));
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            if (entry.productId != null) {
+                // The product's diff chain has a gap now; start the next entry from a full snapshot
+                snapshots.invalidate(entry.productId);
+            }
+            log.error("Failed to write activity log entry {} for user {}", entry.actionType, entry.userId, e);
+        }
+    }
+
+    private void bind(PreparedStatement ps, PendingActivity entry) throws SQLException {
+        ps.setObject(1, entry.userId, Types.OTHER);
+        ps.setObject(2, entry.productId, Types.OTHER);
+        ps.setString(3, entry.actionType.name());
+        ActivityValueFormat format = formatOf(entry);
+        StoredValues values = storedValues(format, entry.oldValue, entry.newValue);
+        ps.setString(4, toJson(values.oldValue()));
+        ps.setString(5, toJson(values.newValue()));
+        ps.setString(6, format.name());
+        ps.setTimestamp(7, Timestamp.valueOf(entry.createdAt));
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize activity log value", e);
+        }
+    }
+
+    private double oldestPendingAgeMillis() {
+        PendingActivity head = queue.peek();
+        return head == null ? 0 : (System.nanoTime() - head.enqueuedNanos) / 1_000_000.0;
+    }
+
+    @Override
+    public void start() {
+        if (!async || running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drainLoop, "activity-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything the writer could not finish in time is written here
+        PendingActivity leftover;
+        while ((leftover = queue.poll()) != null) {
+            writeDirect(leftover);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server (which shuts down in a higher phase) so in-flight requests
+     * can still enqueue, but before the DataSource is closed.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    static final class PendingActivity {
+        final UUID userId;
+        final UUID productId;
+        final ActionType actionType;
+        final Object oldValue;
+        final Object newValue;
+        final LocalDateTime createdAt;
+        // Set when the entry is first bound for insert
+        ActivityValueFormat format;
+        volatile long enqueuedNanos;
+
+        PendingActivity(UUID userId, UUID productId, ActionType actionType, Object oldValue, Object newValue,
+                        LocalDateTime createdAt) {
+            this.userId = userId;
+            this.productId = productId;
+            this.actionType = actionType;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+            this.createdAt = createdAt;
+            this.enqueuedNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.postqode.nexus.service;
+
+/**
+ * Published once activity log rows have been written, so read-side caches can drop stale aggregates.
+ *
+ * @param count number of rows written
+ */
+public record ActivityLoggedEvent(int count) {
+}
@@ -0,0 +1,60 @@
+package com.postqode.nexus.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Field diffs in the shape stored by DIFF activity log entries: old_value holds the previous
+ * values of the changed top-level fields, new_value their new values. Applying new_value over
+ * the state before the change (a JSON merge patch) gives the state after it.
+ */
+final class ActivityValueDiff {
+
+    record Changes(ObjectNode oldValues, ObjectNode newValues) {
+    }
+
+    private ActivityValueDiff() {
+    }
+
+    static Changes between(JsonNode before, JsonNode after) {
+        ObjectNode oldValues = JsonNodeFactory.instance.objectNode();
+        ObjectNode newValues = JsonNodeFactory.instance.objectNode();
+        Set<String> fields = new LinkedHashSet<>();
+        before.fieldNames().forEachRemaining(fields::add);
+        after.fieldNames().forEachRemaining(fields::add);
+        for (String field : fields) {
+            JsonNode oldValue = before.path(field).isMissingNode() ? NullNode.instance : before.get(field);
+            JsonNode newValue = after.path(field).isMissingNode() ? NullNode.instance : after.get(field);
+            if (!oldValue.equals(newValue)) {
+                oldValues.set(field, oldValue);
+                newValues.set(field, newValue);
+            }
+        }
+        return new Changes(oldValues, newValues);
+    }
+
+    /**
+     * Whether a diff continues from {@code state}: every field it changed had, before the
+     * change, the value {@code state} holds.
+     */
+    static boolean follows(Map<String, Object> state, Map<String, Object> oldValues) {
+        return oldValues == null || oldValues.entrySet().stream()
+                .allMatch(field -> Objects.equals(state.get(field.getKey()), field.getValue()));
+    }
+
+    static Map<String, Object> apply(Map<String, Object> state, Map<String, Object> changes) {
+        Map<String, Object> result = new LinkedHashMap<>(state);
+        if (changes != null) {
+            result.putAll(changes);
+        }
+        return result;
+    }
+}
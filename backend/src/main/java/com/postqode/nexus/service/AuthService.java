@@ -6,14 +6,15 @@ import com.postqode.nexus.dto.RegisterRequest;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.model.UserRole;
 import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.AuthenticatedUser;
 import com.postqode.nexus.security.JwtTokenProvider;
+import com.postqode.nexus.security.UserStatusCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -24,6 +25,7 @@ public class AuthService {
         private final JwtTokenProvider jwtTokenProvider;
         private final UserRepository userRepository;
         private final PasswordEncoder passwordEncoder;
+        private final UserStatusCache userStatusCache;
 
         public AuthResponse register(RegisterRequest request) {
                 if (userRepository.existsByUsername(request.getUsername())) {
@@ -38,6 +40,8 @@ public class AuthService {
                 user.setIsEnabled(true);
 
                 userRepository.save(user);
+                // A lookup before the user existed may have cached the name as missing
+                userStatusCache.evict(user.getUsername());
 
                 // Auto-login after registration
                 Authentication authentication = authenticationManager.authenticate(
@@ -64,8 +68,7 @@ public class AuthService {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 String token = jwtTokenProvider.generateToken(authentication);
 
-                User user = userRepository.findByUsername(loginRequest.getUsername())
-                                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+                AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
 
                 return AuthResponse.builder()
                                 .token(token)
@@ -0,0 +1,348 @@
+package com.postqode.nexus.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps node-local caches consistent across backend instances over PostgreSQL LISTEN/NOTIFY.
+ *
+ * Caches evict locally as before and {@link #publish} the change; after the surrounding
+ * transaction commits a single publisher thread sends it with {@code pg_notify}, numbered
+ * per node. Every node LISTENs on its own connection outside the pool and hands changes
+ * from other nodes to the subscribers of that topic.
+ *
+ * Notifications are not replayed, so whenever some may have been missed the subscribers
+ * are told to drop everything: after (re)connecting the listener, and when the sequence
+ * numbers from a node skip, which is what a publish that failed on that node looks like.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    public enum Topic {
+        PRODUCT,
+        USER
+    }
+
+    record Message(String node, long seq, Topic topic, String key) {
+    }
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final ResultSetExtractor<Void> IGNORE_RESULT = rs -> null;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final String channel;
+    private final long pollIntervalMs;
+    private final long healthCheckIntervalMs;
+    private final long reconnectDelayMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<Topic, List<Consumer<String>>> subscribers = new EnumMap<>(Topic.class);
+    private final ExecutorService publisher;
+    private long publishedSeq; // publisher thread only
+
+    private final Counter publishedCounter;
+    private final Counter publishFailedCounter;
+    private final Counter receivedCounter;
+    private final Counter flushCounter;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                DataSourceProperties dataSourceProperties,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.cache-bus.enabled:true}") boolean enabled,
+                                @Value("${app.cache-bus.channel:nexus_cache_invalidation}") String channel,
+                                @Value("${app.cache-bus.poll-interval-ms:500}") long pollIntervalMs,
+                                @Value("${app.cache-bus.health-check-interval-ms:10000}") long healthCheckIntervalMs,
+                                @Value("${app.cache-bus.reconnect-delay-ms:2000}") long reconnectDelayMs) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollIntervalMs = pollIntervalMs;
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        for (Topic topic : Topic.values()) {
+            subscribers.put(topic, new CopyOnWriteArrayList<>());
+        }
+        this.publisher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.publishedCounter = Counter.builder("cache.invalidation.published")
+                .description("Cache invalidations sent to other nodes")
+                .register(meterRegistry);
+        this.publishFailedCounter = Counter.builder("cache.invalidation.publish.failed")
+                .description("Cache invalidations that could not be sent; other nodes flush when they notice the gap")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("cache.invalidation.received")
+                .description("Cache invalidations received from other nodes")
+                .register(meterRegistry);
+        this.flushCounter = Counter.builder("cache.invalidation.flushes")
+                .description("Full cache flushes after the listener may have missed invalidations")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a local cache. The consumer gets the changed key, or null to drop everything.
+     * It runs on the listener thread and must not block.
+     */
+    public void subscribe(Topic topic, Consumer<String> invalidator) {
+        subscribers.get(topic).add(invalidator);
+    }
+
+    /**
+     * Tell the other nodes a key changed (null for every key). Inside a transaction this is
+     * sent after commit, and not at all on rollback. Never throws.
+     */
+    public void publish(Topic topic, String key) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(topic, key);
+                }
+            });
+        } else {
+            submit(topic, key);
+        }
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private void submit(Topic topic, String key) {
+        try {
+            publisher.execute(() -> send(topic, key));
+        } catch (RuntimeException e) {
+            // Shutting down; the other nodes see the gap once this node is gone
+            publishFailedCounter.increment();
+        }
+    }
+
+    private void send(Topic topic, String key) {
+        long seq = ++publishedSeq;
+        try {
+            String payload = objectMapper.writeValueAsString(new Message(nodeId, seq, topic, key));
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", IGNORE_RESULT, channel, payload);
+            publishedCounter.increment();
+        } catch (JsonProcessingException | DataAccessException e) {
+            // The sequence number is used up, so receivers treat the next message as a gap
+            publishFailedCounter.increment();
+            log.warn("Failed to publish cache invalidation {} {}: {}", topic, key, e.getMessage());
+        }
+    }
+
+    private void listenLoop() {
+        boolean mayHaveMissed = false;
+        Map<String, Long> lastSeqByNode = new HashMap<>();
+        while (running) {
+            try {
+                if (connection == null) {
+                    connection = connect();
+                    if (mayHaveMissed) {
+                        lastSeqByNode.clear();
+                        flushAll("listener reconnected");
+                    }
+                    mayHaveMissed = false;
+                }
+                poll(connection, lastSeqByNode);
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                mayHaveMissed = true;
+                closeQuietly();
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}",
+                        reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        closeQuietly();
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        String password = dataSourceProperties.determinePassword();
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        properties.setProperty("ApplicationName", "nexus-cache-bus-" + nodeId);
+        Connection listener = DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+        try (Statement statement = listener.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        } catch (SQLException e) {
+            listener.close();
+            throw e;
+        }
+        log.info("Cache invalidation listener connected on channel {}", channel);
+        return listener;
+    }
+
+    private void poll(Connection listener, Map<String, Long> lastSeqByNode) throws SQLException {
+        long idleSince = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = listener.unwrap(PGConnection.class).getNotifications((int) pollIntervalMs);
+            if (notifications != null && notifications.length > 0) {
+                for (PGNotification notification : notifications) {
+                    handle(notification.getParameter(), lastSeqByNode);
+                }
+                idleSince = System.currentTimeMillis();
+            } else if (System.currentTimeMillis() - idleSince >= healthCheckIntervalMs) {
+                // A silently dropped connection only shows up when we use it
+                try (Statement statement = listener.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                idleSince = System.currentTimeMillis();
+            }
+        }
+    }
+
+    void handle(String payload, Map<String, Long> lastSeqByNode) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        if (nodeId.equals(message.node())) {
+            return;
+        }
+        receivedCounter.increment();
+        Long lastSeq = lastSeqByNode.put(message.node(), message.seq());
+        if (lastSeq != null && message.seq() > lastSeq + 1) {
+            flushAll("missed " + (message.seq() - lastSeq - 1) + " invalidations from node " + message.node());
+            return;
+        }
+        for (Consumer<String> invalidator : subscribers.get(message.topic())) {
+            invalidate(invalidator, message.key());
+        }
+    }
+
+    private void flushAll(String reason) {
+        log.info("Flushing local caches: {}", reason);
+        flushCounter.increment();
+        subscribers.values().forEach(topicSubscribers -> topicSubscribers.forEach(invalidator -> invalidate(invalidator, null)));
+    }
+
+    private static void invalidate(Consumer<String> invalidator, String key) {
+        try {
+            invalidator.accept(key);
+        } catch (RuntimeException e) {
+            log.warn("Cache invalidation for key {} failed", key, e);
+        }
+    }
+
+    private void closeQuietly() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Closing cache invalidation listener connection failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        listenerThread.interrupt();
+        try {
+            listenerThread.join(pollIntervalMs * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeQuietly();
+        publisher.shutdown();
+        try {
+            publisher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Same phase as the activity log writer: after the web server, before the DataSource.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -16,15 +16,21 @@ public class CategoryService {
     
     @Autowired
     private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductCache productCache;
     
+    @Transactional(readOnly = true)
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Category> getCategoryById(UUID id) {
         return categoryRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Category> getCategoryByName(String name) {
         return categoryRepository.findByName(name);
     }
@@ -46,6 +52,10 @@ public class CategoryService {
             throw new IllegalArgumentException("Category with name '" + categoryDetails.getName() + "' already exists");
         }
         
+        // Cached product responses carry the category name
+        if (!category.getName().equals(categoryDetails.getName())) {
+            productCache.evictAll();
+        }
         category.setName(categoryDetails.getName());
         category.setDescription(categoryDetails.getDescription());
         
@@ -61,5 +71,6 @@ public class CategoryService {
         // For now, we'll allow deletion but in production you'd want to check
         
         categoryRepository.delete(category);
+        productCache.evictAll();
     }
 }
@@ -0,0 +1,99 @@
+package com.postqode.nexus.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields with "" escapes,
+ * line breaks inside quotes, CRLF or LF record ends. Blank lines are skipped.
+ */
+class CsvRecordReader {
+
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+
+    CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * The next record's fields, or null at end of input.
+     */
+    String[] next() throws IOException {
+        List<String> fields = new ArrayList<>(8);
+        field.setLength(0);
+        boolean inQuotes = false;
+        boolean started = false;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (!started) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields.toArray(String[]::new);
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        position++;
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '\r' || c == '\n') {
+                if (c == '\r' && peek() == '\n') {
+                    position++;
+                }
+                if (!started) {
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields.toArray(String[]::new);
+            }
+            started = true;
+            if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -6,92 +6,160 @@ import com.postqode.nexus.dto.graphql.DashboardMetrics;
 import com.postqode.nexus.dto.graphql.StatusCount;
 import com.postqode.nexus.dto.graphql.UserActivity;
 import com.postqode.nexus.model.ActivityLog;
+import com.postqode.nexus.model.DashboardCounter;
 import com.postqode.nexus.model.ProductStatus;
-import com.postqode.nexus.model.User;
 import com.postqode.nexus.repository.ActivityLogRepository;
-import com.postqode.nexus.repository.ProductRepository;
-import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.repository.DashboardCounterRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @SuppressWarnings("null")
 public class DashboardService {
 
-    private final ProductRepository productRepository;
+    // Also bounds activityByUserCache, which is keyed by the caller-supplied window
+    static final int MAX_ACTIVITY_DAYS = 365;
+
+    private final DashboardCounterRepository dashboardCounterRepository;
     private final ActivityLogRepository activityLogRepository;
-    private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
 
+    @Value("${app.dashboard.counter-retention-days:7}")
+    private int counterRetentionDays;
+
+    @Value("${app.dashboard.activity-cache-ttl-ms:30000}")
+    private long activityCacheTtlMs;
+
+    private final Map<Integer, CachedActivity> activityByUserCache = new ConcurrentHashMap<>();
+    private final AtomicLong activityGeneration = new AtomicLong();
+
     @Transactional(readOnly = true)
     public DashboardMetrics getDashboardMetrics() {
+        Map<String, Long> counters = loadCounters();
         return DashboardMetrics.builder()
-                .totalProducts((int) productRepository.count())
-                .activeProducts((int) productRepository.countByStatus(ProductStatus.ACTIVE))
-                .lowStockProducts((int) productRepository.countByStatus(ProductStatus.LOW_STOCK))
-                .outOfStockProducts((int) productRepository.countByStatus(ProductStatus.OUT_OF_STOCK))
-                .productsAddedToday((int) productRepository.countProductsAddedToday())
-                .actionsToday((int) activityLogRepository.countActionsToday())
+                .totalProducts(counter(counters, DashboardCounter.PRODUCTS_TOTAL))
+                .activeProducts(statusCounter(counters, ProductStatus.ACTIVE))
+                .lowStockProducts(statusCounter(counters, ProductStatus.LOW_STOCK))
+                .outOfStockProducts(statusCounter(counters, ProductStatus.OUT_OF_STOCK))
+                .productsAddedToday(counter(counters, DashboardCounter.PRODUCTS_ADDED))
+                .actionsToday(counter(counters, DashboardCounter.ACTIONS))
                 .build();
     }
 
     @Transactional(readOnly = true)
     public int getProductsAddedToday() {
-        return (int) productRepository.countProductsAddedToday();
+        return counter(loadCounters(), DashboardCounter.PRODUCTS_ADDED);
     }
 
     @Transactional(readOnly = true)
     public List<StatusCount> getProductsByStatus() {
+        Map<String, Long> counters = loadCounters();
         List<StatusCount> statusCounts = new ArrayList<>();
         for (ProductStatus status : ProductStatus.values()) {
             statusCounts.add(StatusCount.builder()
                     .status(status)
-                    .count((int) productRepository.countByStatus(status))
+                    .count(statusCounter(counters, status))
                     .build());
         }
         return statusCounts;
     }
 
-    @Transactional(readOnly = true)
-    public List<UserActivity> getActivityByUser(int days) {
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<Object[]> stats = activityLogRepository.getUserActivityStats(since);
+    /**
+     * Repairs any drift between the trigger-maintained counters and the source tables,
+     * and prunes old daily counters. Counts run in an MVCC snapshot without table locks and
+     * the drift is added as a delta (V19), so writers are never blocked by the COUNTs.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.dashboard.reconcile-interval-ms:3600000}")
+    @Transactional
+    public int reconcileCounters() {
+        int corrected = dashboardCounterRepository.reconcile(counterRetentionDays);
+        if (corrected > 0) {
+            log.warn("Reconciled {} drifted dashboard counters", corrected);
+        }
+        return corrected;
+    }
 
-        List<UserActivity> activities = new ArrayList<>();
+    private Map<String, Long> loadCounters() {
+        Map<String, Long> counters = new HashMap<>();
+        for (Object[] row : dashboardCounterRepository.findCurrentValues()) {
+            counters.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counters;
+    }
 
-        for (Object[] row : stats) {
-            UUID userId = (UUID) row[0];
-            Long count = (Long) row[1];
-            LocalDateTime lastAction = (LocalDateTime) row[2];
+    private int counter(Map<String, Long> counters, String name) {
+        return counters.getOrDefault(name, 0L).intValue();
+    }
 
-            User user = userRepository.findById(userId).orElse(null);
-            String username = user != null ? user.getUsername() : "Unknown";
+    private int statusCounter(Map<String, Long> counters, ProductStatus status) {
+        return counter(counters, DashboardCounter.STATUS_PREFIX + status.name());
+    }
 
-            activities.add(UserActivity.builder()
-                    .username(username)
-                    .actionCount(count.intValue())
-                    .lastAction(lastAction.toString())
-                    .build());
+    // Not transactional: cache hits should not borrow a connection
+    public List<UserActivity> getActivityByUser(int days) {
+        if (days < 1 || days > MAX_ACTIVITY_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_ACTIVITY_DAYS);
+        }
+        CachedActivity cached = activityByUserCache.get(days);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.activities();
         }
 
+        // Results computed before an invalidation must not be cached after it
+        long generation = activityGeneration.get();
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        List<UserActivity> activities = activityLogRepository.getUserActivityStats(since).stream()
+                .map(row -> UserActivity.builder()
+                        .username(row.getUsername())
+                        .actionCount(row.getActionCount().intValue())
+                        .lastAction(row.getLastAction().toString())
+                        .build())
+                .toList();
+
+        if (activityGeneration.get() == generation) {
+            activityByUserCache.put(days, new CachedActivity(activities,
+                    System.currentTimeMillis() + activityCacheTtlMs));
+        }
         return activities;
     }
 
+    /**
+     * New activity changes the per-user aggregates, so cached results are dropped
+     * once the rows are committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivityLogged(ActivityLoggedEvent event) {
+        activityGeneration.incrementAndGet();
+        activityByUserCache.clear();
+    }
+
     @Transactional(readOnly = true)
     public List<ActivityLogResponse> getRecentActivity(int limit) {
         List<ActivityLog> logs = activityLogRepository.findRecentActivity(PageRequest.of(0, limit));
         return logs.stream().map(this::mapToResponse).collect(Collectors.toList());
     }
 
+    private record CachedActivity(List<UserActivity> activities, long expiresAt) {
+    }
+
     private ActivityLogResponse mapToResponse(ActivityLog log) {
         String oldValueStr = null;
         String newValueStr = null;
@@ -112,6 +180,7 @@ public class DashboardService {
                 .username(log.getUser().getUsername())
                 .productName(log.getProduct() != null ? log.getProduct().getName() : null)
                 .actionType(log.getActionType())
+                .valueFormat(log.getValueFormat())
                 .oldValue(oldValueStr)
                 .newValue(newValueStr)
                 .createdAt(log.getCreatedAt().toString())
@@ -0,0 +1,303 @@
+package com.postqode.nexus.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Streams whole tables as CSV or NDJSON.
+ *
+ * Rows are read through a forward-only cursor inside a read-only transaction, so the driver
+ * fetches fetch-size rows at a time, and each row is written out before the next is read.
+ * Heap use does not depend on the size of the table.
+ */
+@Service
+public class ExportService {
+
+    public enum ExportFormat {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+        NDJSON(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8), "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        ExportFormat(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private enum ColumnType {
+        TEXT,
+        NUMBER,
+        TIMESTAMP,
+        JSON
+    }
+
+    private record Column(String name, ColumnType type) {
+    }
+
+    // Orderings follow the existing created_at indexes so the cursor can start without a sort
+    static final String PRODUCTS_SQL = "SELECT p.id, p.sku, p.name, p.description, p.price, p.quantity, p.status, "
+            + "p.category_id, c.name AS category_name, p.created_at, p.updated_at "
+            + "FROM products p LEFT JOIN categories c ON c.id = p.category_id "
+            + "ORDER BY p.created_at, p.id";
+
+    static final String ORDERS_SQL = "SELECT o.id, o.user_id, u.username, o.product_id, p.sku AS product_sku, "
+            + "p.name AS product_name, o.quantity, o.status, o.created_at, o.updated_at "
+            + "FROM orders o JOIN users u ON u.id = o.user_id JOIN products p ON p.id = o.product_id "
+            + "ORDER BY o.created_at";
+
+    static final String ACTIVITY_LOGS_SQL = "SELECT a.id, a.created_at, a.action_type, a.user_id, u.username, "
+            + "a.product_id, a.value_format, a.old_value, a.new_value "
+            + "FROM activity_logs a LEFT JOIN users u ON u.id = a.user_id "
+            + "ORDER BY a.created_at";
+
+    private static final List<Column> PRODUCT_COLUMNS = List.of(
+            new Column("id", ColumnType.TEXT),
+            new Column("sku", ColumnType.TEXT),
+            new Column("name", ColumnType.TEXT),
+            new Column("description", ColumnType.TEXT),
+            new Column("price", ColumnType.NUMBER),
+            new Column("quantity", ColumnType.NUMBER),
+            new Column("status", ColumnType.TEXT),
+            new Column("category_id", ColumnType.TEXT),
+            new Column("category_name", ColumnType.TEXT),
+            new Column("created_at", ColumnType.TIMESTAMP),
+            new Column("updated_at", ColumnType.TIMESTAMP));
+
+    private static final List<Column> ORDER_COLUMNS = List.of(
+            new Column("id", ColumnType.TEXT),
+            new Column("user_id", ColumnType.TEXT),
+            new Column("username", ColumnType.TEXT),
+            new Column("product_id", ColumnType.TEXT),
+            new Column("product_sku", ColumnType.TEXT),
+            new Column("product_name", ColumnType.TEXT),
+            new Column("quantity", ColumnType.NUMBER),
+            new Column("status", ColumnType.TEXT),
+            new Column("created_at", ColumnType.TIMESTAMP),
+            new Column("updated_at", ColumnType.TIMESTAMP));
+
+    private static final List<Column> ACTIVITY_LOG_COLUMNS = List.of(
+            new Column("id", ColumnType.TEXT),
+            new Column("created_at", ColumnType.TIMESTAMP),
+            new Column("action_type", ColumnType.TEXT),
+            new Column("user_id", ColumnType.TEXT),
+            new Column("username", ColumnType.TEXT),
+            new Column("product_id", ColumnType.TEXT),
+            new Column("value_format", ColumnType.TEXT),
+            new Column("old_value", ColumnType.JSON),
+            new Column("new_value", ColumnType.JSON));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportService(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public void exportProducts(ExportFormat format, OutputStream out) throws IOException {
+        export(PRODUCTS_SQL, PRODUCT_COLUMNS, format, out);
+    }
+
+    public void exportOrders(ExportFormat format, OutputStream out) throws IOException {
+        export(ORDERS_SQL, ORDER_COLUMNS, format, out);
+    }
+
+    public void exportActivityLogs(ExportFormat format, OutputStream out) throws IOException {
+        export(ACTIVITY_LOGS_SQL, ACTIVITY_LOG_COLUMNS, format, out);
+    }
+
+    private void export(String sql, List<Column> columns, ExportFormat format, OutputStream out) throws IOException {
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(out, columns) : new NdjsonRowWriter(out, columns);
+        try {
+            // The PostgreSQL driver only uses a cursor (instead of reading the whole result)
+            // with autocommit off and a fetch size set, hence the transaction
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (ResultSet rs) -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; the transaction and cursor are closed by now
+            throw e.getCause();
+        }
+        writer.finish();
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet rs) throws IOException, SQLException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV with a header row; nulls are empty fields and JSON columns are written as text.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final List<Column> columns;
+
+        CsvRowWriter(OutputStream out, List<Column> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+            this.columns = columns;
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Column column = columns.get(i);
+                String value = switch (column.type()) {
+                    case NUMBER -> {
+                        BigDecimal number = rs.getBigDecimal(column.name());
+                        yield number == null ? null : number.toPlainString();
+                    }
+                    case TIMESTAMP -> {
+                        Timestamp timestamp = rs.getTimestamp(column.name());
+                        yield timestamp == null ? null : timestamp.toLocalDateTime().toString();
+                    }
+                    case TEXT, JSON -> rs.getString(column.name());
+                };
+                if (value != null) {
+                    writeField(value);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per line; JSON columns are embedded as JSON rather than strings.
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final List<Column> columns;
+
+        NdjsonRowWriter(OutputStream out, List<Column> columns) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines are separated explicitly below instead of by the default root value separator
+            this.generator.setRootValueSeparator(null);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (Column column : columns) {
+                generator.writeFieldName(column.name());
+                switch (column.type()) {
+                    case NUMBER -> {
+                        BigDecimal number = rs.getBigDecimal(column.name());
+                        if (number == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeNumber(number);
+                        }
+                    }
+                    case TIMESTAMP -> {
+                        Timestamp timestamp = rs.getTimestamp(column.name());
+                        if (timestamp == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeString(timestamp.toLocalDateTime().toString());
+                        }
+                    }
+                    case JSON -> {
+                        String json = rs.getString(column.name());
+                        if (json == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeRawValue(json);
+                        }
+                    }
+                    case TEXT -> generator.writeString(rs.getString(column.name()));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.dto.OrderBatchResponse;
+import com.postqode.nexus.dto.OrderBatchResponse.Result;
+import com.postqode.nexus.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Approves or rejects many PENDING orders in one transaction with a fixed number of
+ * set-based statements, instead of the handful of statements per order the single-order
+ * endpoints cost.
+ *
+ * Locks are always taken as orders, then products, then inventory rows, each set in id order.
+ * Single approvals take the same three in the same order, so batches and single approvals
+ * queue behind each other instead of deadlocking. Orders that cannot be processed are reported
+ * per order and do not fail the batch. Orders still holding their stock reservation (V17) take
+ * reserved stock; orders whose reservation expired compete for unreserved stock.
+ */
+@Slf4j
+@Service
+public class OrderBatchService {
+
+    static final String LOCK_PENDING_ORDERS_SQL = "SELECT o.id, o.user_id, o.product_id, o.quantity, "
+            + "o.reservation_expires_at IS NOT NULL "
+            + "FROM orders o WHERE o.id = ANY(?) AND o.status = 'PENDING' ORDER BY o.id FOR UPDATE";
+
+    static final String ORDER_STATUS_SQL = "SELECT o.id, o.status FROM orders o WHERE o.id = ANY(?)";
+
+    static final String LOCK_PRODUCTS_SQL = "SELECT p.id, p.name, p.quantity, p.reserved_quantity "
+            + "FROM products p WHERE p.id = ANY(?) ORDER BY p.id FOR UPDATE";
+
+    static final String TRANSITION_SQL = "UPDATE orders SET status = ?::order_status, updated_at = ?, "
+            + "reservation_expires_at = NULL "
+            + "WHERE id = ANY(?) AND status = 'PENDING' RETURNING id";
+
+    static final String DECREMENT_STOCK_SQL = "UPDATE products p SET quantity = p.quantity - d.quantity, "
+            + "reserved_quantity = p.reserved_quantity - d.reserved "
+            + "FROM unnest(?::uuid[], ?::int[], ?::int[]) AS d(id, quantity, reserved) WHERE p.id = d.id";
+
+    static final String RELEASE_RESERVATIONS_SQL = "UPDATE products p "
+            + "SET reserved_quantity = p.reserved_quantity - d.reserved "
+            + "FROM unnest(?::uuid[], ?::int[]) AS d(id, reserved) WHERE p.id = d.id";
+
+    // One row per (user, product): ON CONFLICT cannot touch the same row twice in one statement
+    static final String MERGE_INVENTORY_SQL = "INSERT INTO user_inventory "
+            + "(user_id, product_id, name, quantity, source, notes, created_at, updated_at) "
+            + "SELECT d.user_id, d.product_id, d.name, d.quantity, 'PURCHASED'::inventory_source, "
+            + "  'Purchased via order', LOCALTIMESTAMP, LOCALTIMESTAMP "
+            + "FROM unnest(?::uuid[], ?::uuid[], ?::varchar[], ?::int[]) AS d(user_id, product_id, name, quantity) "
+            + "ON CONFLICT (user_id, product_id) WHERE source = 'PURCHASED' "
+            + "DO UPDATE SET quantity = user_inventory.quantity + EXCLUDED.quantity, updated_at = LOCALTIMESTAMP";
+
+    private record PendingOrder(UUID id, UUID userId, UUID productId, int quantity, boolean reserved) {
+    }
+
+    private record LockedProduct(String name, int quantity, int reserved) {
+    }
+
+    private record Purchase(UUID userId, UUID productId) {
+    }
+
+    private static final Comparator<Purchase> BY_USER_AND_PRODUCT =
+            Comparator.comparing(Purchase::userId).thenComparing(Purchase::productId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductCache productCache;
+    private final int maxBatchSize;
+
+    public OrderBatchService(JdbcTemplate jdbcTemplate,
+                             ProductCache productCache,
+                             @Value("${app.order-batch.max-size:500}") int maxBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productCache = productCache;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Approve the given orders. Stock is allocated in request order, so when a product runs
+     * out, the orders listed first are the ones approved; the rest stay PENDING.
+     */
+    @Transactional
+    public OrderBatchResponse approveOrders(List<UUID> orderIds) {
+        long startedAt = System.nanoTime();
+        List<UUID> ids = distinct(orderIds);
+
+        Map<UUID, PendingOrder> pending = lockPendingOrders(ids);
+        Map<UUID, LockedProduct> products = lockProducts(pending.values());
+
+        Map<UUID, Result> results = new LinkedHashMap<>();
+        Map<UUID, Integer> stock = new HashMap<>();
+        Map<UUID, Integer> reserved = new HashMap<>();
+        products.forEach((id, product) -> {
+            stock.put(id, product.quantity());
+            reserved.put(id, product.reserved());
+        });
+        List<PendingOrder> approved = new ArrayList<>();
+        for (UUID id : ids) {
+            PendingOrder order = pending.get(id);
+            if (order == null) {
+                results.put(id, null); // filled in from the current status below
+                continue;
+            }
+            UUID productId = order.productId();
+            int left = stock.get(productId);
+            int unreserved = left - reserved.get(productId);
+            // A reserved order already holds its units; any other order may only take unreserved ones
+            if (order.quantity() > (order.reserved() ? left : unreserved)) {
+                results.put(id, new Result(id, false, Order.OrderStatus.PENDING,
+                        "Insufficient stock. Available: " + unreserved + ", Requested: " + order.quantity()));
+                continue;
+            }
+            stock.put(productId, left - order.quantity());
+            if (order.reserved()) {
+                reserved.merge(productId, -order.quantity(), Integer::sum);
+            }
+            approved.add(order);
+            results.put(id, new Result(id, true, Order.OrderStatus.APPROVED, null));
+        }
+
+        if (!approved.isEmpty()) {
+            applyApprovals(approved, products);
+        }
+        fillUnprocessed(results, "Only PENDING orders can be approved");
+        return response(results, startedAt);
+    }
+
+    /**
+     * Reject the given orders, releasing the stock they still hold reserved.
+     */
+    @Transactional
+    public OrderBatchResponse rejectOrders(List<UUID> orderIds) {
+        long startedAt = System.nanoTime();
+        List<UUID> ids = distinct(orderIds);
+
+        Map<UUID, Result> results = new LinkedHashMap<>();
+        ids.forEach(id -> results.put(id, null));
+        Map<UUID, PendingOrder> pending = lockPendingOrders(ids);
+        if (!pending.isEmpty()) {
+            jdbcTemplate.query(withArrays(TRANSITION_SQL, Order.OrderStatus.REJECTED.name(),
+                    Timestamp.valueOf(LocalDateTime.now()), uuids(new ArrayList<>(pending.keySet()))), rs -> {
+                UUID id = rs.getObject(1, UUID.class);
+                results.put(id, new Result(id, true, Order.OrderStatus.REJECTED, null));
+            });
+            releaseReservations(pending.values());
+        }
+
+        fillUnprocessed(results, "Only PENDING orders can be rejected");
+        return response(results, startedAt);
+    }
+
+    private Map<UUID, PendingOrder> lockPendingOrders(List<UUID> ids) {
+        Map<UUID, PendingOrder> pending = new HashMap<>();
+        jdbcTemplate.query(withArrays(LOCK_PENDING_ORDERS_SQL, (Object) uuids(ids)), rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            pending.put(id, new PendingOrder(id, rs.getObject(2, UUID.class), rs.getObject(3, UUID.class),
+                    rs.getInt(4), rs.getBoolean(5)));
+        });
+        return pending;
+    }
+
+    private Map<UUID, LockedProduct> lockProducts(Collection<PendingOrder> orders) {
+        Map<UUID, LockedProduct> products = new HashMap<>();
+        UUID[] productIds = orders.stream().map(PendingOrder::productId).distinct().toArray(UUID[]::new);
+        if (productIds.length > 0) {
+            jdbcTemplate.query(withArrays(LOCK_PRODUCTS_SQL, (Object) productIds), rs -> {
+                products.put(rs.getObject(1, UUID.class),
+                        new LockedProduct(rs.getString(2), rs.getInt(3), rs.getInt(4)));
+            });
+        }
+        return products;
+    }
+
+    private void releaseReservations(Collection<PendingOrder> rejected) {
+        List<PendingOrder> holding = rejected.stream().filter(PendingOrder::reserved).toList();
+        if (holding.isEmpty()) {
+            return;
+        }
+        lockProducts(holding);
+        Map<UUID, Integer> released = new TreeMap<>();
+        for (PendingOrder order : holding) {
+            released.merge(order.productId(), order.quantity(), Integer::sum);
+        }
+        jdbcTemplate.update(withArrays(RELEASE_RESERVATIONS_SQL, released.keySet().toArray(UUID[]::new),
+                released.values().toArray(Integer[]::new)));
+        released.keySet().forEach(productCache::evict);
+    }
+
+    private void applyApprovals(List<PendingOrder> approved, Map<UUID, LockedProduct> products) {
+        int transitioned = jdbcTemplate.query(withArrays(TRANSITION_SQL, Order.OrderStatus.APPROVED.name(),
+                Timestamp.valueOf(LocalDateTime.now()), uuids(approved.stream().map(PendingOrder::id).toList())),
+                (rs, rowNum) -> rs.getObject(1, UUID.class)).size();
+        if (transitioned != approved.size()) {
+            // The orders are locked FOR UPDATE above, so nothing else can have moved them
+            throw new IllegalStateException("Approved " + transitioned + " of " + approved.size() + " locked orders");
+        }
+
+        // Net decrement per product, in product id order like the locks
+        Map<UUID, Integer> taken = new TreeMap<>();
+        Map<UUID, Integer> reservedTaken = new TreeMap<>();
+        for (PendingOrder order : approved) {
+            taken.merge(order.productId(), order.quantity(), Integer::sum);
+            reservedTaken.merge(order.productId(), order.reserved() ? order.quantity() : 0, Integer::sum);
+        }
+        jdbcTemplate.update(withArrays(DECREMENT_STOCK_SQL, taken.keySet().toArray(UUID[]::new),
+                taken.values().toArray(Integer[]::new), reservedTaken.values().toArray(Integer[]::new)));
+
+        Map<Purchase, Integer> purchased = new TreeMap<>(BY_USER_AND_PRODUCT);
+        for (PendingOrder order : approved) {
+            purchased.merge(new Purchase(order.userId(), order.productId()), order.quantity(), Integer::sum);
+        }
+        List<UUID> users = new ArrayList<>();
+        List<UUID> productIds = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> quantities = new ArrayList<>();
+        purchased.forEach((purchase, quantity) -> {
+            users.add(purchase.userId());
+            productIds.add(purchase.productId());
+            names.add(products.get(purchase.productId()).name());
+            quantities.add(quantity);
+        });
+        jdbcTemplate.update(withArrays(MERGE_INVENTORY_SQL, users.toArray(UUID[]::new),
+                productIds.toArray(UUID[]::new), names.toArray(String[]::new), quantities.toArray(Integer[]::new)));
+
+        taken.keySet().forEach(productCache::evict);
+        log.debug("Approved {} orders across {} products", approved.size(), taken.size());
+    }
+
+    /**
+     * Results still null belong to orders that were not PENDING or do not exist; one query
+     * tells which.
+     */
+    private void fillUnprocessed(Map<UUID, Result> results, String notPendingMessage) {
+        List<UUID> unprocessed = results.entrySet().stream()
+                .filter(entry -> entry.getValue() == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (unprocessed.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(withArrays(ORDER_STATUS_SQL, (Object) uuids(unprocessed)), rs -> {
+            UUID id = rs.getObject(1, UUID.class);
+            results.put(id, new Result(id, false, Order.OrderStatus.valueOf(rs.getString(2)), notPendingMessage));
+        });
+        for (UUID id : unprocessed) {
+            results.computeIfAbsent(id, missing -> new Result(missing, false, null,
+                    "Order not found with id: " + missing));
+        }
+    }
+
+    private List<UUID> distinct(List<UUID> orderIds) {
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one order id is required");
+        }
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Order ids must not be null");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " orders can be processed at once");
+        }
+        return ids;
+    }
+
+    private static OrderBatchResponse response(Map<UUID, Result> results, long startedAt) {
+        List<Result> list = new ArrayList<>(results.values());
+        int succeeded = (int) list.stream().filter(Result::isSuccess).count();
+        return OrderBatchResponse.builder()
+                .requested(list.size())
+                .succeeded(succeeded)
+                .failed(list.size() - succeeded)
+                .results(list)
+                .durationMs((System.nanoTime() - startedAt) / 1_000_000)
+                .build();
+    }
+
+    private static UUID[] uuids(List<UUID> ids) {
+        return ids.toArray(UUID[]::new);
+    }
+
+    /**
+     * Binds the arguments in order; Java arrays become SQL arrays of the matching type. A lone
+     * array argument must be cast to Object, or varargs spreads it into separate arguments.
+     */
+    private static PreparedStatementCreator withArrays(String sql, Object... args) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            for (int i = 0; i < args.length; i++) {
+                Object arg = args[i];
+                if (arg instanceof UUID[] values) {
+                    statement.setArray(i + 1, connection.createArrayOf("uuid", values));
+                } else if (arg instanceof Integer[] values) {
+                    statement.setArray(i + 1, connection.createArrayOf("int4", values));
+                } else if (arg instanceof String[] values) {
+                    statement.setArray(i + 1, connection.createArrayOf("varchar", values));
+                } else {
+                    statement.setObject(i + 1, arg);
+                }
+            }
+            return statement;
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.postqode.nexus.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keyset position within the order listing: the (created_at, id) of the last row returned.
+ * Serialized as URL-safe Base64 JSON so clients treat it as opaque.
+ */
+final class OrderCursor {
+
+    private final LocalDateTime createdAt;
+    private final UUID lastId;
+
+    OrderCursor(LocalDateTime createdAt, UUID lastId) {
+        this.createdAt = createdAt;
+        this.lastId = lastId;
+    }
+
+    LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    UUID getLastId() {
+        return lastId;
+    }
+
+    String encode(ObjectMapper objectMapper) {
+        Map<String, String> payload = new LinkedHashMap<>();
+        payload.put("c", createdAt.toString());
+        payload.put("id", lastId.toString());
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(payload));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    static OrderCursor decode(String cursor, ObjectMapper objectMapper) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            @SuppressWarnings("unchecked")
+            Map<String, String> payload = objectMapper.readValue(json, Map.class);
+            return new OrderCursor(LocalDateTime.parse(payload.get("c")), UUID.fromString(payload.get("id")));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
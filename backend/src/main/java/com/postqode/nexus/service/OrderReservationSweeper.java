@@ -0,0 +1,96 @@
+package com.postqode.nexus.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Releases the stock reservations of PENDING orders whose reservation expired (V17), in batches
+ * of {@code sweep-batch-size}, each in its own transaction. The orders stay PENDING; approving one
+ * later takes unreserved stock like a new order would.
+ *
+ * Expired orders are claimed with SKIP LOCKED, so an order being approved, rejected or cancelled
+ * is left for the next run and nodes sweeping at the same time never take the same order.
+ * Products are then updated in id order, the lock order the order services use.
+ */
+@Slf4j
+@Service
+public class OrderReservationSweeper {
+
+    static final String EXPIRE_SQL = "UPDATE orders o SET reservation_expires_at = NULL "
+            + "FROM (SELECT id FROM orders WHERE reservation_expires_at < ? "
+            + "  ORDER BY reservation_expires_at LIMIT ? FOR UPDATE SKIP LOCKED) e "
+            + "WHERE o.id = e.id RETURNING o.product_id, o.quantity";
+
+    static final String RELEASE_SQL =
+            "UPDATE products SET reserved_quantity = reserved_quantity - ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCache productCache;
+    private final int batchSize;
+
+    public OrderReservationSweeper(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   ProductCache productCache,
+                                   @Value("${app.order-reservation.sweep-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productCache = productCache;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order-reservation.sweep-interval-ms:60000}",
+            initialDelayString = "${app.order-reservation.sweep-initial-delay-ms:30000}")
+    public void sweep() {
+        int released = sweep(LocalDateTime.now());
+        if (released > 0) {
+            log.info("Released {} expired order reservations", released);
+        }
+    }
+
+    /**
+     * Releases every reservation that expired before {@code now}. Returns the number of orders
+     * released.
+     */
+    int sweep(LocalDateTime now) {
+        int total = 0;
+        int released;
+        do {
+            released = transactionTemplate.execute(status -> releaseBatch(now));
+            total += released;
+        } while (released == batchSize);
+        return total;
+    }
+
+    private int releaseBatch(LocalDateTime now) {
+        Map<UUID, Integer> releasedByProduct = new TreeMap<>();
+        int[] orders = {0};
+        jdbcTemplate.query(EXPIRE_SQL, rs -> {
+            releasedByProduct.merge(rs.getObject(1, UUID.class), rs.getInt(2), Integer::sum);
+            orders[0]++;
+        }, Timestamp.valueOf(now), batchSize);
+        if (releasedByProduct.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> args = new ArrayList<>();
+        releasedByProduct.forEach((productId, quantity) -> args.add(new Object[]{quantity, productId}));
+        jdbcTemplate.batchUpdate(RELEASE_SQL, args);
+
+        releasedByProduct.keySet().forEach(productCache::evict);
+        log.debug("Released {} expired reservations across {} products", orders[0], releasedByProduct.size());
+        return orders[0];
+    }
+}
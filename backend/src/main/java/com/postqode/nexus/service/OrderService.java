@@ -1,15 +1,26 @@
 package com.postqode.nexus.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postqode.nexus.dto.OrderCursorPage;
+import com.postqode.nexus.dto.OrderSummaryResponse;
 import com.postqode.nexus.model.Order;
 import com.postqode.nexus.model.Product;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.repository.OrderRepository;
 import com.postqode.nexus.repository.ProductRepository;
 import com.postqode.nexus.repository.UserRepository;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +28,9 @@ import java.util.UUID;
 @Transactional
 public class OrderService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -29,18 +43,99 @@ public class OrderService {
     @Autowired
     private UserInventoryService userInventoryService;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // How long a PENDING order holds its stock before OrderReservationSweeper releases it
+    @Value("${app.order-reservation.ttl-ms:172800000}")
+    private long reservationTtlMs;
+
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAllWithDetails();
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByUserId(UUID userId) {
         return orderRepository.findByUserIdWithDetails(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByStatus(Order.OrderStatus status) {
         return orderRepository.findByStatus(status);
     }
 
+    /**
+     * Keyset-paginated order listing, newest first, with optional filters. Each window is one
+     * index range scan starting after the cursor's (created_at, id); no offset, no count query.
+     * {@code from} is inclusive, {@code to} exclusive.
+     */
+    @Transactional(readOnly = true)
+    public OrderCursorPage getOrdersByCursor(Order.OrderStatus status, UUID userId, UUID productId,
+                                             LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        OrderCursor position = cursor != null && !cursor.isBlank()
+                ? OrderCursor.decode(cursor, objectMapper)
+                : null;
+
+        List<OrderSummaryResponse> rows = orderRepository.findSummaries(
+                filter(status, userId, productId, from, to, position), NEWEST_FIRST, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<OrderSummaryResponse> window = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            OrderSummaryResponse last = window.get(window.size() - 1);
+            // created_at is NOT NULL (V15), so the cursor always has a value
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode(objectMapper);
+        }
+
+        return OrderCursorPage.builder()
+                .items(new ArrayList<>(window))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(size)
+                .build();
+    }
+
+    private Specification<Order> filter(Order.OrderStatus status, UUID userId, UUID productId,
+                                        LocalDateTime from, LocalDateTime to, OrderCursor position) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (userId != null) {
+                predicates.add(cb.equal(root.get("user").get("id"), userId));
+            }
+            if (productId != null) {
+                predicates.add(cb.equal(root.get("product").get("id"), productId));
+            }
+            if (from != null) {
+                predicates.add(cb.greaterThanOrEqualTo(createdAt, from));
+            }
+            if (to != null) {
+                predicates.add(cb.lessThan(createdAt, to));
+            }
+            if (position != null) {
+                // Leading range on created_at keeps the predicate index-seekable
+                Path<UUID> id = root.get("id");
+                predicates.add(cb.lessThanOrEqualTo(createdAt, position.getCreatedAt()));
+                predicates.add(cb.or(cb.lessThan(createdAt, position.getCreatedAt()),
+                        cb.lessThan(id, position.getLastId())));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    @Transactional(readOnly = true)
     public Order getOrderById(UUID id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + id));
@@ -48,84 +143,99 @@ public class OrderService {
 
     /**
      * Create a new order (User action)
-     * Order starts in PENDING status
+     * Order starts in PENDING status and reserves its stock until approved, rejected,
+     * cancelled or expired, so stock cannot be promised to more orders than it covers.
      */
     public Order createOrder(UUID userId, UUID productId, Integer quantity) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
-
-        if (quantity <= 0) {
+        if (quantity == null || quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
 
+        // Conditional UPDATE: concurrent orders can never reserve more than is available
+        if (productRepository.reserveStock(productId, quantity) == 0) {
+            int available = productRepository.findAvailableQuantityById(productId)
+                    .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+            throw new IllegalArgumentException(
+                    "Insufficient stock. Available: " + available + ", Requested: " + quantity);
+        }
+        productCache.evict(productId);
+
+        // The caller is the authenticated user, so a reference is enough; the FK still guards the id
+        User user = userRepository.getReferenceById(userId);
+        Product product = productRepository.getReferenceById(productId);
+
         // Create order in PENDING status
         Order order = new Order(user, product, quantity, Order.OrderStatus.PENDING);
+        order.setReservationExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(reservationTtlMs)));
         Order savedOrder = orderRepository.save(order);
         return orderRepository.findByIdWithDetails(savedOrder.getId()).orElse(savedOrder);
     }
 
     /**
      * Approve an order (Admin action)
-     * Reduces product stock and adds to user inventory
+     * Reduces product stock and adds to user inventory.
+     * Status change and stock decrement are conditional UPDATEs, so concurrent approvals
+     * can neither approve the same order twice nor oversell a product. An order whose
+     * reservation expired competes for unreserved stock like a new one.
      */
     public Order approveOrder(UUID orderId) {
-        Order order = getOrderById(orderId);
+        Order order = lockOrder(orderId);
 
         if (order.getStatus() != Order.OrderStatus.PENDING) {
             throw new IllegalArgumentException("Only PENDING orders can be approved");
         }
 
-        Product product = order.getProduct();
+        UUID userId = order.getUser().getId();
+        UUID productId = order.getProduct().getId();
+        String productName = order.getProduct().getName();
+        int quantity = order.getQuantity();
+        boolean reserved = order.getReservationExpiresAt() != null;
+
+        // Claim the order; loses to any concurrent approve/reject/cancel
+        claimPendingOrder(orderId, Order.OrderStatus.APPROVED, "Only PENDING orders can be approved");
 
-        // Check if sufficient stock is available
-        if (product.getQuantity() < order.getQuantity()) {
+        // Reduce product stock before touching the inventory row: order, product, inventory is
+        // the lock order OrderBatchService uses too
+        int taken = reserved
+                ? productRepository.takeReservedStock(productId, quantity)
+                : productRepository.decrementStock(productId, quantity);
+        if (taken == 0) {
+            int available = productRepository.findAvailableQuantityById(productId).orElse(0);
             throw new IllegalArgumentException(
-                    "Insufficient stock. Available: " + product.getQuantity() + ", Requested: " + order.getQuantity());
+                    "Insufficient stock. Available: " + available + ", Requested: " + quantity);
         }
-
-        // Reduce product stock
-        product.setQuantity(product.getQuantity() - order.getQuantity());
-        productRepository.save(product);
-
-        // Update order status
-        order.setStatus(Order.OrderStatus.APPROVED);
-        Order approvedOrder = orderRepository.save(order);
+        productCache.evict(productId);
 
         // Add to user inventory
-        userInventoryService.addPurchasedItem(
-                order.getUser().getId(),
-                product.getId(),
-                product.getName(),
-                order.getQuantity());
+        userInventoryService.addPurchasedItem(userId, productId, productName, quantity);
 
-        return orderRepository.findByIdWithDetails(approvedOrder.getId()).orElse(approvedOrder);
+        return orderRepository.findByIdWithDetails(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
     }
 
     /**
      * Reject an order (Admin action)
-     * Does not change stock
+     * Releases the order's stock reservation
      */
     public Order rejectOrder(UUID orderId) {
-        Order order = getOrderById(orderId);
+        Order order = lockOrder(orderId);
 
         if (order.getStatus() != Order.OrderStatus.PENDING) {
             throw new IllegalArgumentException("Only PENDING orders can be rejected");
         }
 
-        order.setStatus(Order.OrderStatus.REJECTED);
-        Order savedOrder = orderRepository.save(order);
-        return orderRepository.findByIdWithDetails(savedOrder.getId()).orElse(savedOrder);
+        claimPendingOrder(orderId, Order.OrderStatus.REJECTED, "Only PENDING orders can be rejected");
+        releaseReservation(order);
+        return orderRepository.findByIdWithDetails(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
     }
 
     /**
      * Cancel an order (User action)
-     * Only PENDING orders can be cancelled
+     * Only PENDING orders can be cancelled; releases the order's stock reservation
      */
     public Order cancelOrder(UUID orderId, UUID userId) {
-        Order order = getOrderById(orderId);
+        Order order = lockOrder(orderId);
 
         if (!order.getUser().getId().equals(userId)) {
             throw new IllegalArgumentException("You can only cancel your own orders");
@@ -135,8 +245,31 @@ public class OrderService {
             throw new IllegalArgumentException("Only PENDING orders can be cancelled");
         }
 
-        order.setStatus(Order.OrderStatus.CANCELLED);
-        Order savedOrder = orderRepository.save(order);
-        return orderRepository.findByIdWithDetails(savedOrder.getId()).orElse(savedOrder);
+        claimPendingOrder(orderId, Order.OrderStatus.CANCELLED, "Only PENDING orders can be cancelled");
+        releaseReservation(order);
+        return orderRepository.findByIdWithDetails(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
+    }
+
+    private Order lockOrder(UUID orderId) {
+        return orderRepository.findByIdForUpdate(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + orderId));
+    }
+
+    private void releaseReservation(Order order) {
+        if (order.getReservationExpiresAt() == null) {
+            return; // already released by OrderReservationSweeper
+        }
+        UUID productId = order.getProduct().getId();
+        productRepository.releaseReservedStock(productId, order.getQuantity());
+        productCache.evict(productId);
+    }
+
+    private void claimPendingOrder(UUID orderId, Order.OrderStatus target, String conflictMessage) {
+        int updated = orderRepository.transitionStatus(
+                orderId, Order.OrderStatus.PENDING, target, LocalDateTime.now());
+        if (updated == 0) {
+            throw new IllegalArgumentException(conflictMessage);
+        }
     }
 }
@@ -7,15 +7,16 @@ import com.postqode.nexus.model.User;
 import com.postqode.nexus.model.UserPreferences;
 import com.postqode.nexus.repository.UserPreferencesRepository;
 import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class PreferencesService {
@@ -25,6 +26,9 @@ public class PreferencesService {
     
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private CurrentUser currentUser;
     
     @Autowired
     private ObjectMapper objectMapper;
@@ -48,14 +52,13 @@ public class PreferencesService {
         LABEL_POOLS.put("region:DE", Arrays.asList("Bundesland", "State"));
     }
 
-    public PreferencesMetadataResponse getMetadata(String profile) {
+    /**
+     * Builds the form metadata on the calling thread, then completes after a simulated latency.
+     * The delay is a timer, not a sleeping thread: no servlet thread or connection is held while it runs.
+     */
+    public CompletableFuture<PreferencesMetadataResponse> getMetadata(String profile) {
         // Simulate variable latency
         long latency = ThreadLocalRandom.current().nextLong(400, 1201);
-        try {
-            Thread.sleep(latency);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
 
         String formId = generateFormId(profile);
         String title = getTitleForProfile(profile);
@@ -84,7 +87,7 @@ public class PreferencesService {
             }
         }
         
-        return new PreferencesMetadataResponse(
+        return afterLatency(latency, () -> new PreferencesMetadataResponse(
             formId,
             title,
             subtitle,
@@ -92,11 +95,14 @@ public class PreferencesService {
             fields,
             Instant.now(),
             latency
-        );
+        ));
     }
 
-    @Transactional
-    public PreferencesSubmitResponse submitPreferences(PreferencesSubmitRequest request) {
+    /**
+     * Persists the preferences right away, then completes after a simulated latency.
+     * The write is a single upsert in its own short transaction, so the delay never holds a connection.
+     */
+    public CompletableFuture<PreferencesSubmitResponse> submitPreferences(PreferencesSubmitRequest request) {
         // Validate profile
         if (!Arrays.asList("personal", "work", "notifications", "localization").contains(request.getProfile())) {
             throw new IllegalArgumentException("Invalid profile: " + request.getProfile());
@@ -104,38 +110,23 @@ public class PreferencesService {
         
         // Simulate variable latency
         long latency = ThreadLocalRandom.current().nextLong(800, 1801);
-        try {
-            Thread.sleep(latency);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
         
         // Persist preferences
         User currentUser = getCurrentUser();
         if (currentUser != null) {
             try {
                 String preferencesJson = objectMapper.writeValueAsString(request.getValues());
-                
-                Optional<UserPreferences> existing = userPreferencesRepository.findByUserAndProfile(currentUser, request.getProfile());
-                UserPreferences prefs;
-                
-                if (existing.isPresent()) {
-                    prefs = existing.get();
-                    prefs.setPreferencesJson(preferencesJson);
-                } else {
-                    prefs = new UserPreferences();
-                    prefs.setUser(currentUser);
-                    prefs.setProfile(request.getProfile());
-                    prefs.setPreferencesJson(preferencesJson);
-                }
-                
-                userPreferencesRepository.save(prefs);
+                userPreferencesRepository.upsert(currentUser.getId(), request.getProfile(), preferencesJson);
             } catch (JsonProcessingException e) {
                 throw new RuntimeException("Failed to serialize preferences", e);
             }
         }
         
-        return new PreferencesSubmitResponse(true, Instant.now(), "Preferences saved.");
+        return afterLatency(latency, () -> new PreferencesSubmitResponse(true, Instant.now(), "Preferences saved."));
+    }
+
+    private static <T> CompletableFuture<T> afterLatency(long latencyMs, Supplier<T> response) {
+        return CompletableFuture.supplyAsync(response, CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS));
     }
 
     private String generateFormId(String profile) {
@@ -292,11 +283,6 @@ public class PreferencesService {
     }
     
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username).orElse(null);
+        return currentUser.find().map(user -> userRepository.getReferenceById(user.getId())).orElse(null);
     }
 }
@@ -0,0 +1,140 @@
+package com.postqode.nexus.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.postqode.nexus.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of single-product responses, keyed by product id.
+ *
+ * Bounded by estimated bytes rather than entry count, and products larger than
+ * {@code max-entry-bytes} (long descriptions) are never cached. Writes evict after commit,
+ * here and, through the {@link CacheInvalidationBus}, on the other instances;
+ * {@code expire-after-write-ms} is the backstop should an invalidation get lost.
+ * Hit, miss and eviction counts are published as the {@code cache.*} metrics with
+ * {@code cache=products}.
+ */
+@Component
+public class ProductCache {
+
+    static final String CACHE_NAME = "products";
+
+    // Object headers, boxed numbers, UUIDs and timestamps of one ProductResponse
+    private static final int FIXED_ENTRY_BYTES = 400;
+
+    private final boolean enabled;
+    private final int maxEntryBytes;
+    private final Cache<UUID, ProductResponse> cache;
+    private final CacheInvalidationBus invalidationBus;
+    // Bumped before every eviction; a load only caches its result if no eviction happened meanwhile
+    private final AtomicLong generation = new AtomicLong();
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        CacheInvalidationBus invalidationBus,
+                        @Value("${app.product-cache.enabled:true}") boolean enabled,
+                        @Value("${app.product-cache.max-total-bytes:33554432}") long maxTotalBytes,
+                        @Value("${app.product-cache.max-entry-bytes:65536}") int maxEntryBytes,
+                        @Value("${app.product-cache.expire-after-write-ms:60000}") long expireAfterWriteMs) {
+        this.invalidationBus = invalidationBus;
+        this.enabled = enabled;
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxTotalBytes)
+                .weigher((UUID id, ProductResponse product) -> weigh(product))
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        invalidationBus.subscribe(CacheInvalidationBus.Topic.PRODUCT, key -> {
+            if (key == null) {
+                removeAll();
+            } else {
+                remove(UUID.fromString(key));
+            }
+        });
+    }
+
+    /**
+     * The cached product, or the loader's result (cached if small enough). Absent products are not cached.
+     */
+    public Optional<ProductResponse> get(UUID id, Function<UUID, Optional<ProductResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        ProductResponse cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long observed = generation.get();
+        Optional<ProductResponse> loaded = loader.apply(id);
+        // A load that overlapped an eviction may have read the old row: use it once, never cache it.
+        // compute() serializes with invalidate() on the same key, so the check cannot go stale before the put.
+        loaded.filter(product -> weigh(product) <= maxEntryBytes)
+                .ifPresent(product -> cache.asMap().compute(id,
+                        (key, current) -> generation.get() == observed ? product : current));
+        return loaded;
+    }
+
+    /**
+     * Drop one product. Inside a transaction the eviction happens after commit, and a load
+     * still in flight from before it does not put its result back.
+     */
+    public void evict(UUID id) {
+        afterCommit(() -> remove(id));
+        invalidationBus.publish(CacheInvalidationBus.Topic.PRODUCT, id.toString());
+    }
+
+    /**
+     * Drop every product, for changes that show up in many responses (category or user names).
+     */
+    public void evictAll() {
+        afterCommit(this::removeAll);
+        invalidationBus.publish(CacheInvalidationBus.Topic.PRODUCT, null);
+    }
+
+    private void remove(UUID id) {
+        generation.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    private void removeAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    static int weigh(ProductResponse product) {
+        // Two bytes per char is the worst case for Java strings
+        long chars = length(product.getSku()) + length(product.getName()) + length(product.getDescription())
+                + length(product.getCategoryName()) + length(product.getCreatedBy()) + length(product.getUpdatedBy());
+        return (int) Math.min(Integer.MAX_VALUE, FIXED_ENTRY_BYTES + 2 * chars);
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,92 @@
+package com.postqode.nexus.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset position within a product listing: the sort column, its direction and the
+ * (sort value, id) of the last row returned. Serialized as URL-safe Base64 JSON so
+ * clients treat it as opaque.
+ */
+final class ProductCursor {
+
+    /** Columns that can drive keyset pagination, with the parser for their cursor value. */
+    static final Map<String, Function<String, Comparable<?>>> SORTABLE_PROPERTIES = Map.of(
+            "name", value -> value,
+            "sku", value -> value,
+            "price", BigDecimal::new,
+            "quantity", Integer::valueOf,
+            "createdAt", LocalDateTime::parse,
+            "updatedAt", LocalDateTime::parse);
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final String value;
+    private final UUID lastId;
+
+    ProductCursor(String property, Sort.Direction direction, String value, UUID lastId) {
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.lastId = lastId;
+    }
+
+    String getProperty() {
+        return property;
+    }
+
+    Sort.Direction getDirection() {
+        return direction;
+    }
+
+    UUID getLastId() {
+        return lastId;
+    }
+
+    Comparable<?> typedValue() {
+        return SORTABLE_PROPERTIES.get(property).apply(value);
+    }
+
+    String encode(ObjectMapper objectMapper) {
+        Map<String, String> payload = new LinkedHashMap<>();
+        payload.put("s", property);
+        payload.put("d", direction.name());
+        payload.put("v", value);
+        payload.put("id", lastId.toString());
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(payload));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    static ProductCursor decode(String cursor, ObjectMapper objectMapper) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            @SuppressWarnings("unchecked")
+            Map<String, String> payload = objectMapper.readValue(json, Map.class);
+            String property = payload.get("s");
+            if (!SORTABLE_PROPERTIES.containsKey(property) || payload.get("v") == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            ProductCursor decoded = new ProductCursor(
+                    property,
+                    Sort.Direction.valueOf(payload.get("d")),
+                    payload.get("v"),
+                    UUID.fromString(payload.get("id")));
+            decoded.typedValue();
+            return decoded;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
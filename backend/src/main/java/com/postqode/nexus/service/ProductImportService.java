@@ -0,0 +1,511 @@
+package com.postqode.nexus.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postqode.nexus.dto.ProductImportResponse;
+import com.postqode.nexus.dto.ProductImportResponse.RowError;
+import com.postqode.nexus.dto.ProductRequest;
+import com.postqode.nexus.model.ActionType;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.security.AuthenticatedUser;
+import com.postqode.nexus.security.CurrentUser;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Bulk product import over the PostgreSQL COPY protocol.
+ *
+ * The request body is read as a stream. Rows are cut into chunks and validated in parallel,
+ * and the valid ones are written in input order to a COPY into a transaction-local staging
+ * table. One INSERT ... SELECT then merges the staging table into products. Rows that fail
+ * validation, repeat an earlier SKU in the file, clash with an existing SKU or name an unknown
+ * category are reported per row instead of failing the import.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum ImportFormat {
+        CSV,
+        NDJSON;
+
+        /**
+         * NDJSON for any JSON content type, CSV otherwise.
+         */
+        public static ImportFormat fromContentType(String contentType) {
+            return contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json") ? NDJSON : CSV;
+        }
+    }
+
+    static final String CREATE_STAGING_SQL = "CREATE TEMP TABLE product_import_staging ("
+            + "row_no BIGINT NOT NULL, sku VARCHAR(50) NOT NULL, name VARCHAR(200) NOT NULL, description TEXT, "
+            + "price DECIMAL(10, 2) NOT NULL, quantity INTEGER NOT NULL, status VARCHAR(20) NOT NULL, category_id UUID"
+            + ") ON COMMIT DROP";
+
+    static final String COPY_SQL = "COPY product_import_staging "
+            + "(row_no, sku, name, description, price, quantity, status, category_id) FROM STDIN";
+
+    // The first row per SKU is the candidate; later ones are reported as duplicates below.
+    // ON CONFLICT skips SKUs that already exist, RETURNING records which candidates made it in.
+    static final String MERGE_SQL = "WITH candidates AS ("
+            + "  SELECT DISTINCT ON (s.sku) s.* FROM product_import_staging s ORDER BY s.sku, s.row_no"
+            + "), inserted AS ("
+            + "  INSERT INTO products (sku, name, description, price, quantity, status, category_id, created_by, updated_by)"
+            + "  SELECT c.sku, c.name, c.description, c.price, c.quantity, c.status, c.category_id, ?, ?"
+            + "  FROM candidates c"
+            + "  WHERE c.category_id IS NULL OR EXISTS (SELECT 1 FROM categories cat WHERE cat.id = c.category_id)"
+            + "  ORDER BY c.row_no"
+            + "  ON CONFLICT (sku) DO NOTHING"
+            + "  RETURNING sku"
+            + ") INSERT INTO product_import_inserted (sku) SELECT sku FROM inserted";
+
+    static final String REJECTED_SQL = "SELECT s.row_no, s.sku, f.first_row, "
+            + "  (s.category_id IS NOT NULL AND NOT EXISTS (SELECT 1 FROM categories cat WHERE cat.id = s.category_id)) AS unknown_category "
+            + "FROM product_import_staging s "
+            + "JOIN (SELECT sku, MIN(row_no) AS first_row FROM product_import_staging GROUP BY sku) f ON f.sku = s.sku "
+            + "WHERE s.row_no <> f.first_row "
+            + "   OR NOT EXISTS (SELECT 1 FROM product_import_inserted i WHERE i.sku = s.sku) "
+            + "ORDER BY s.row_no LIMIT ?";
+
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("sku", "name", "price", "quantity");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("100000000"); // DECIMAL(10, 2)
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CurrentUser currentUser;
+    private final ActivityLogWriter activityLogWriter;
+
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int maxChunksInFlight;
+    private final ExecutorService validationPool;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                CurrentUser currentUser,
+                                ActivityLogWriter activityLogWriter,
+                                @Value("${app.product-import.parallelism:0}") int parallelism,
+                                @Value("${app.product-import.chunk-size:5000}") int chunkSize,
+                                @Value("${app.product-import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.currentUser = currentUser;
+        this.activityLogWriter = activityLogWriter;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        // Bounds memory: the reader stops parsing while this many chunks await validation or COPY
+        this.maxChunksInFlight = threads * 2;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.validationPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "product-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validationPool.shutdownNow();
+    }
+
+    /**
+     * Import products from a CSV (with header row) or NDJSON stream.
+     * Runs in one transaction, so either all accepted rows are imported or none are.
+     */
+    @Transactional
+    public ProductImportResponse importProducts(InputStream input, ImportFormat format) {
+        long startedAt = System.nanoTime();
+        AuthenticatedUser user = currentUser.get();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource rows = format == ImportFormat.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        jdbcTemplate.execute("CREATE TEMP TABLE product_import_inserted (sku VARCHAR(50) PRIMARY KEY) ON COMMIT DROP");
+
+        List<RowError> errors = new ArrayList<>();
+        long invalid = 0;
+        long staged = 0;
+        long total = 0;
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn = null;
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        try {
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            List<RawRow> batch = new ArrayList<>(chunkSize);
+            RawRow raw;
+            while ((raw = rows.next()) != null) {
+                total++;
+                batch.add(raw);
+                if (batch.size() == chunkSize) {
+                    List<RawRow> chunk = batch;
+                    inFlight.add(validationPool.submit(() -> convert(chunk, rows)));
+                    batch = new ArrayList<>(chunkSize);
+                }
+                // Write finished chunks in order; block only when the pipeline is full
+                while (!inFlight.isEmpty() && (inFlight.size() >= maxChunksInFlight || inFlight.peek().isDone())) {
+                    Chunk chunk = inFlight.poll().get();
+                    staged += write(copyIn, chunk);
+                    invalid += collect(chunk, errors);
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<RawRow> chunk = batch;
+                inFlight.add(validationPool.submit(() -> convert(chunk, rows)));
+            }
+            while (!inFlight.isEmpty()) {
+                Chunk chunk = inFlight.poll().get();
+                staged += write(copyIn, chunk);
+                invalid += collect(chunk, errors);
+            }
+            copyIn.endCopy();
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException("Product import failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Product import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Product import failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            cancelQuietly(copyIn);
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+
+        long stagedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        long imported = 0;
+        long conflicts = 0;
+        if (staged > 0) {
+            // Fresh statistics so the merge plans against the real staging size
+            jdbcTemplate.execute("ANALYZE product_import_staging");
+            imported = jdbcTemplate.update(MERGE_SQL, user.getId(), user.getId());
+            conflicts = staged - imported;
+            if (conflicts > 0) {
+                errors.addAll(jdbcTemplate.query(REJECTED_SQL, (rs, rowNum) -> {
+                    long row = rs.getLong("row_no");
+                    long firstRow = rs.getLong("first_row");
+                    String sku = rs.getString("sku");
+                    String message;
+                    if (row != firstRow) {
+                        message = "Duplicate SKU in import, first seen on row " + firstRow;
+                    } else if (rs.getBoolean("unknown_category")) {
+                        message = "Category not found";
+                    } else {
+                        message = "Product with SKU " + sku + " already exists";
+                    }
+                    return new RowError(row, sku, message);
+                }, maxErrors));
+            }
+        }
+
+        errors.sort(Comparator.comparingLong(RowError::getRow));
+        boolean truncated = invalid + conflicts > maxErrors;
+        List<RowError> reported = errors.size() > maxErrors ? new ArrayList<>(errors.subList(0, maxErrors)) : errors;
+        long durationMs = (System.nanoTime() - startedAt) / 1_000_000;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("format", format.name());
+        summary.put("totalRows", total);
+        summary.put("imported", imported);
+        summary.put("rejected", invalid + conflicts);
+        summary.put("durationMs", durationMs);
+        activityLogWriter.record(currentUser.getReference(), null, ActionType.BULK_IMPORT, null, summary);
+
+        log.info("Imported {} of {} products from {} in {} ms ({} ms to validate and stage)",
+                imported, total, format, durationMs, stagedMs);
+        return ProductImportResponse.builder()
+                .format(format.name())
+                .totalRows(total)
+                .imported(imported)
+                .rejected(invalid + conflicts)
+                .errors(reported)
+                .errorsTruncated(truncated)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private long write(CopyIn copyIn, Chunk chunk) throws SQLException {
+        if (chunk.validRows > 0) {
+            copyIn.writeToCopy(chunk.copyData, 0, chunk.copyData.length);
+        }
+        return chunk.validRows;
+    }
+
+    private long collect(Chunk chunk, List<RowError> errors) {
+        // Keep the first maxErrors only; the count stays exact
+        for (RowError error : chunk.errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+        return chunk.errors.size();
+    }
+
+    private static void cancelQuietly(CopyIn copyIn) {
+        if (copyIn != null && copyIn.isActive()) {
+            try {
+                copyIn.cancelCopy();
+            } catch (SQLException e) {
+                log.warn("Failed to cancel product import COPY", e);
+            }
+        }
+    }
+
+    /**
+     * Validate a chunk and encode its valid rows as COPY text. Runs on the validation pool.
+     */
+    Chunk convert(List<RawRow> rows, RowSource source) {
+        StringBuilder copy = new StringBuilder(rows.size() * 128);
+        List<RowError> errors = new ArrayList<>();
+        int valid = 0;
+        for (RawRow raw : rows) {
+            ProductRequest request;
+            try {
+                request = source.toRequest(raw);
+            } catch (IllegalArgumentException e) {
+                errors.add(new RowError(raw.row(), null, e.getMessage()));
+                continue;
+            }
+            String error = validate(request);
+            if (error != null) {
+                errors.add(new RowError(raw.row(), request.getSku(), error));
+                continue;
+            }
+            appendCopyRow(copy, raw.row(), request);
+            valid++;
+        }
+        return new Chunk(copy.toString().getBytes(StandardCharsets.UTF_8), valid, errors);
+    }
+
+    private String validate(ProductRequest request) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().reduce((a, b) -> a + "; " + b).get();
+        }
+        // Column limits that would otherwise abort the whole COPY
+        if (request.getSku().codePointCount(0, request.getSku().length()) > 50) {
+            return "SKU must be at most 50 characters";
+        }
+        if (request.getName().codePointCount(0, request.getName().length()) > 200) {
+            return "Name must be at most 200 characters";
+        }
+        if (request.getPrice().setScale(2, RoundingMode.HALF_UP).compareTo(MAX_PRICE) >= 0) {
+            return "Price must be less than " + MAX_PRICE.toPlainString();
+        }
+        if (containsNul(request.getSku()) || containsNul(request.getName()) || containsNul(request.getDescription())) {
+            return "Text must not contain NUL characters";
+        }
+        return null;
+    }
+
+    private static boolean containsNul(String value) {
+        return value != null && value.indexOf('\0') >= 0;
+    }
+
+    private static void appendCopyRow(StringBuilder copy, long row, ProductRequest request) {
+        ProductStatus status = ProductService.calculateStatus(request.getQuantity(), request.getStatus());
+        copy.append(row).append('\t');
+        appendText(copy, request.getSku());
+        copy.append('\t');
+        appendText(copy, request.getName());
+        copy.append('\t');
+        appendText(copy, request.getDescription());
+        copy.append('\t').append(request.getPrice().toPlainString())
+                .append('\t').append(request.getQuantity())
+                .append('\t').append(status.name())
+                .append('\t');
+        if (request.getCategoryId() != null) {
+            copy.append(request.getCategoryId());
+        } else {
+            copy.append("\\N");
+        }
+        copy.append('\n');
+    }
+
+    /**
+     * COPY text format escaping: backslash, tab and line breaks; null as \N.
+     */
+    private static void appendText(StringBuilder copy, String value) {
+        if (value == null) {
+            copy.append("\\N");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> copy.append("\\\\");
+                case '\t' -> copy.append("\\t");
+                case '\n' -> copy.append("\\n");
+                case '\r' -> copy.append("\\r");
+                default -> copy.append(c);
+            }
+        }
+    }
+
+    /**
+     * One unparsed input row: CSV fields or an NDJSON line.
+     */
+    record RawRow(long row, String[] fields, String line) {
+    }
+
+    record Chunk(byte[] copyData, int validRows, List<RowError> errors) {
+    }
+
+    /**
+     * Reads raw rows sequentially on the request thread and turns one into a request on a pool thread.
+     */
+    interface RowSource {
+
+        RawRow next() throws IOException;
+
+        ProductRequest toRequest(RawRow raw);
+    }
+
+    private static final class CsvRowSource implements RowSource {
+
+        private final CsvRecordReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private boolean headerRead;
+        private long row;
+
+        CsvRowSource(BufferedReader reader) {
+            this.reader = new CsvRecordReader(reader);
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            if (!headerRead) {
+                readHeader();
+                headerRead = true;
+            }
+            String[] fields = reader.next();
+            return fields == null ? null : new RawRow(++row, fields, null);
+        }
+
+        private void readHeader() throws IOException {
+            String[] header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV import needs a header row");
+            }
+            for (int i = 0; i < header.length; i++) {
+                // Accept both categoryId and category_id
+                columns.put(header[i].trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).sorted().toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("CSV header is missing columns: " + String.join(", ", missing));
+            }
+        }
+
+        @Override
+        public ProductRequest toRequest(RawRow raw) {
+            String[] fields = raw.fields();
+            ProductRequest request = new ProductRequest();
+            request.setSku(field(fields, "sku"));
+            request.setName(field(fields, "name"));
+            request.setDescription(field(fields, "description"));
+            request.setPrice(parse(field(fields, "price"), BigDecimal::new, "Invalid price"));
+            request.setQuantity(parse(field(fields, "quantity"), Integer::valueOf, "Invalid quantity"));
+            request.setCategoryId(parse(field(fields, "categoryid"), UUID::fromString, "Invalid categoryId"));
+            request.setStatus(parse(field(fields, "status"),
+                    value -> ProductStatus.valueOf(value.toUpperCase(Locale.ROOT)), "Invalid status"));
+            return request;
+        }
+
+        private String field(String[] fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.length) {
+                return null;
+            }
+            String value = fields[index];
+            return value.isEmpty() ? null : value;
+        }
+
+        private static <T> T parse(String value, Function<String, T> parser, String message) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            try {
+                return parser.apply(value.trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(message + ": " + value);
+            }
+        }
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private long row;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            return line == null ? null : new RawRow(++row, null, line);
+        }
+
+        @Override
+        public ProductRequest toRequest(RawRow raw) {
+            try {
+                return objectMapper.readValue(raw.line(), ProductRequest.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.postqode.nexus.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postqode.nexus.config.ReadWriteRoutingDataSource;
+import com.postqode.nexus.dto.ProductCursorPage;
 import com.postqode.nexus.dto.ProductRequest;
 import com.postqode.nexus.dto.ProductResponse;
 import com.postqode.nexus.model.ActionType;
-import com.postqode.nexus.model.ActivityLog;
 import com.postqode.nexus.model.Category;
 import com.postqode.nexus.model.Product;
 import com.postqode.nexus.model.ProductStatus;
@@ -13,20 +13,20 @@ import com.postqode.nexus.model.User;
 import com.postqode.nexus.repository.ActivityLogRepository;
 import com.postqode.nexus.repository.CategoryRepository;
 import com.postqode.nexus.repository.ProductRepository;
-import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.repository.ProductSearchResult;
+import com.postqode.nexus.security.CurrentUser;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -37,42 +37,86 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ActivityLogRepository activityLogRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final ObjectMapper objectMapper;
+    private final ActivityLogWriter activityLogWriter;
+    private final ProductCache productCache;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
     @Transactional(readOnly = true)
     public Page<ProductResponse> getProducts(ProductStatus status, UUID categoryId, String search, Pageable pageable) {
-        Specification<Product> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        // Unsorted searches are ranked by relevance; an explicit sort keeps the filter path
+        if (search != null && !search.trim().isEmpty() && pageable.getSort().isUnsorted()) {
+            String term = search.trim();
+            Page<ProductSearchResult> ranked = productRepository.searchRanked(
+                    term,
+                    "%" + term.toLowerCase() + "%",
+                    status != null ? status.name() : null,
+                    categoryId,
+                    pageable);
+            return ranked.map(this::mapToResponse);
+        }
 
-            if (status != null) {
-                predicates.add(cb.equal(root.get("status"), status));
-            }
+        Specification<Product> spec = buildSpecification(status, categoryId, search);
+        return productRepository.findResponses(spec, pageable);
+    }
 
-            if (categoryId != null) {
-                predicates.add(cb.equal(root.get("category").get("id"), categoryId));
-            }
+    /**
+     * Keyset-paginated listing. Rows are ordered by (sort column, id) and the next window starts
+     * strictly after the cursor, so no offset is scanned and no count query is issued.
+     * The cursor carries its own sort; {@code sort} only applies to the first window.
+     */
+    @Transactional(readOnly = true)
+    public ProductCursorPage getProductsByCursor(ProductStatus status, UUID categoryId, String search,
+                                                 String cursor, int size, Sort sort) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
 
-            if (search != null && !search.trim().isEmpty()) {
-                String searchPattern = "%" + search.trim().toLowerCase() + "%";
-                predicates.add(cb.or(
-                        cb.like(cb.lower(root.get("name")), searchPattern),
-                        cb.like(cb.lower(root.get("sku")), searchPattern)
-                ));
-            }
+        ProductCursor position = cursor != null && !cursor.isBlank()
+                ? ProductCursor.decode(cursor, objectMapper)
+                : null;
+        Sort.Order order = position != null
+                ? new Sort.Order(position.getDirection(), position.getProperty())
+                : resolveKeysetOrder(sort);
 
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+        Specification<Product> spec = buildSpecification(status, categoryId, search);
+        if (position != null) {
+            spec = spec.and(afterCursor(position));
+        }
 
-        Page<Product> products = productRepository.findAll(spec, pageable);
-        return products.map(this::mapToResponse);
+        Sort keysetSort = Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        List<ProductResponse> rows = productRepository.findResponses(spec, keysetSort, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductResponse> window = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductResponse last = window.get(window.size() - 1);
+            nextCursor = new ProductCursor(
+                    order.getProperty(),
+                    order.getDirection(),
+                    // Every sortable column is NOT NULL (V1, V18), so the cursor always has a value
+                    keysetValue(last, order.getProperty()).toString(),
+                    last.getId()).encode(objectMapper);
+        }
+
+        return ProductCursorPage.builder()
+                .items(new ArrayList<>(window))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(size)
+                .build();
     }
 
-    @Transactional(readOnly = true)
+    // No transaction here: a cache hit must not borrow a connection. Misses load from the
+    // primary, since the entry is served to every user and a replica may not have the last write yet.
     public ProductResponse getProduct(UUID id) {
-        Product product = productRepository.findById(id)
+        return productCache.get(id,
+                        key -> ReadWriteRoutingDataSource.onPrimary(() -> productRepository.findResponseById(key)))
                 .orElseThrow(() -> new RuntimeException("Product not found"));
-        return mapToResponse(product);
     }
 
     @Transactional
@@ -103,6 +147,7 @@ public class ProductService {
                 .build();
 
         product = productRepository.save(product);
+        productCache.evict(product.getId());
         logActivity(currentUser, product, ActionType.CREATE, null, mapToResponse(product));
 
         return mapToResponse(product);
@@ -147,6 +192,7 @@ public class ProductService {
         product.setUpdatedBy(currentUser);
 
         product = productRepository.save(product);
+        productCache.evict(id);
         logActivity(currentUser, product, ActionType.UPDATE, oldProduct, mapToResponse(product));
 
         return mapToResponse(product);
@@ -164,6 +210,7 @@ public class ProductService {
         activityLogRepository.unlinkProduct(id);
 
         productRepository.delete(product);
+        productCache.evict(id);
         // Pass null for product to avoid FK constraint violation since it's deleted
         logActivity(currentUser, null, ActionType.DELETE, oldProduct, null);
     }
@@ -180,12 +227,85 @@ public class ProductService {
         product.setUpdatedBy(currentUser);
 
         product = productRepository.save(product);
+        productCache.evict(id);
         logActivity(currentUser, product, ActionType.STATE_CHANGE, oldProduct, mapToResponse(product));
 
         return mapToResponse(product);
     }
 
-    private ProductStatus calculateStatus(Integer quantity, ProductStatus currentStatus) {
+    private Specification<Product> buildSpecification(ProductStatus status, UUID categoryId, String search) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+
+            if (categoryId != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), categoryId));
+            }
+
+            if (search != null && !search.trim().isEmpty()) {
+                String searchPattern = "%" + search.trim().toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("name")), searchPattern),
+                        cb.like(cb.lower(root.get("sku")), searchPattern)
+                ));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private Sort.Order resolveKeysetOrder(Sort sort) {
+        Sort.Order order = sort != null ? sort.stream().findFirst().orElse(null) : null;
+        if (order == null) {
+            return Sort.Order.desc("createdAt");
+        }
+        if (!ProductCursor.SORTABLE_PROPERTIES.containsKey(order.getProperty())) {
+            throw new IllegalArgumentException("Unsupported sort property for cursor pagination: " + order.getProperty());
+        }
+        return order;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Specification<Product> afterCursor(ProductCursor position) {
+        return (root, query, cb) -> {
+            Path<Comparable> column = root.get(position.getProperty());
+            Comparable value = position.typedValue();
+            Path<UUID> id = root.get("id");
+            // Leading range on the sort column keeps the predicate index-seekable
+            if (position.getDirection().isDescending()) {
+                return cb.and(
+                        cb.lessThanOrEqualTo(column, value),
+                        cb.or(cb.lessThan(column, value), cb.lessThan(id, position.getLastId())));
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(column, value),
+                    cb.or(cb.greaterThan(column, value), cb.greaterThan(id, position.getLastId())));
+        };
+    }
+
+    private Object keysetValue(ProductResponse product, String property) {
+        switch (property) {
+            case "name":
+                return product.getName();
+            case "sku":
+                return product.getSku();
+            case "price":
+                return product.getPrice();
+            case "quantity":
+                return product.getQuantity();
+            case "createdAt":
+                return product.getCreatedAt();
+            case "updatedAt":
+                return product.getUpdatedAt();
+            default:
+                throw new IllegalArgumentException("Unsupported sort property for cursor pagination: " + property);
+        }
+    }
+
+    static ProductStatus calculateStatus(Integer quantity, ProductStatus currentStatus) {
         if (quantity == null || quantity == 0) {
             return ProductStatus.OUT_OF_STOCK;
         } else if (quantity < 10) { // Threshold for low stock
@@ -199,36 +319,30 @@ public class ProductService {
     }
 
     private User getCurrentUser() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        String username;
-        if (principal instanceof UserDetails) {
-            username = ((UserDetails) principal).getUsername();
-        } else {
-            username = principal.toString();
-        }
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUser.getReference();
     }
 
     private void logActivity(User user, Product product, ActionType actionType, Object oldValue, Object newValue) {
-        Map<String, Object> oldMap = oldValue != null
-                ? objectMapper.convertValue(oldValue, new TypeReference<Map<String, Object>>() {
-                })
-                : null;
-        Map<String, Object> newMap = newValue != null
-                ? objectMapper.convertValue(newValue, new TypeReference<Map<String, Object>>() {
-                })
-                : null;
+        activityLogWriter.record(user, product, actionType, oldValue, newValue);
+    }
 
-        ActivityLog log = ActivityLog.builder()
-                .user(user)
-                .product(product) // This can be null for DELETE
-                .actionType(actionType)
-                .oldValue(oldMap)
-                .newValue(newMap)
+    private ProductResponse mapToResponse(ProductSearchResult row) {
+        return ProductResponse.builder()
+                .id(row.getId())
+                .sku(row.getSku())
+                .name(row.getName())
+                .description(row.getDescription())
+                .price(row.getPrice())
+                .quantity(row.getQuantity())
+                .reservedQuantity(row.getReservedQuantity())
+                .status(row.getStatus())
+                .categoryId(row.getCategoryId())
+                .categoryName(row.getCategoryName())
+                .createdBy(row.getCreatedBy())
+                .updatedBy(row.getUpdatedBy())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
                 .build();
-
-        activityLogRepository.save(log);
     }
 
     private ProductResponse mapToResponse(Product product) {
@@ -239,6 +353,7 @@ public class ProductService {
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .quantity(product.getQuantity())
+                .reservedQuantity(product.getReservedQuantity())
                 .status(product.getStatus())
                 .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
                 .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
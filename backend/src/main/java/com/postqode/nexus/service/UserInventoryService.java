@@ -1,9 +1,7 @@
 package com.postqode.nexus.service;
 
-import com.postqode.nexus.model.Product;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.model.UserInventory;
-import com.postqode.nexus.repository.ProductRepository;
 import com.postqode.nexus.repository.UserInventoryRepository;
 import com.postqode.nexus.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,13 +21,12 @@ public class UserInventoryService {
     @Autowired
     private UserRepository userRepository;
 
-    @Autowired
-    private ProductRepository productRepository;
-
+    @Transactional(readOnly = true)
     public List<UserInventory> getUserInventory(UUID userId) {
         return userInventoryRepository.findByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public UserInventory getInventoryItemById(UUID id) {
         return userInventoryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Inventory item not found with id: " + id));
@@ -39,8 +36,8 @@ public class UserInventoryService {
      * Add a manually created inventory item
      */
     public UserInventory addManualItem(UUID userId, String name, Integer quantity, String notes) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+        // The caller is the authenticated user, so a reference is enough; the FK still guards the id
+        User user = userRepository.getReferenceById(userId);
 
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than 0");
@@ -59,32 +56,11 @@ public class UserInventoryService {
 
     /**
      * Add a purchased item (called when order is approved).
-     * Merges with existing item if present.
+     * Merges with the user's existing PURCHASED row for the product in a single upsert; the
+     * caller already holds the order, so user and product are not loaded again.
      */
-    public UserInventory addPurchasedItem(UUID userId, UUID productId, String productName, Integer quantity) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
-
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
-
-        // Check if item already exists
-        return userInventoryRepository
-                .findByUserIdAndProductAndSource(userId, product, UserInventory.InventorySource.PURCHASED)
-                .map(existingItem -> {
-                    existingItem.setQuantity(existingItem.getQuantity() + quantity);
-                    return userInventoryRepository.save(existingItem);
-                })
-                .orElseGet(() -> {
-                    UserInventory item = new UserInventory(
-                            user,
-                            product,
-                            productName,
-                            quantity,
-                            UserInventory.InventorySource.PURCHASED,
-                            "Purchased via order");
-                    return userInventoryRepository.save(item);
-                });
+    public void addPurchasedItem(UUID userId, UUID productId, String productName, Integer quantity) {
+        userInventoryRepository.upsertPurchased(userId, productId, productName, quantity, "Purchased via order");
     }
 
     /**
@@ -136,32 +112,34 @@ public class UserInventoryService {
     /**
      * Consume (decrease quantity of) an inventory item.
      * Removes item if quantity reaches 0.
+     * Ownership and available quantity are checked by one conditional UPDATE, so consuming
+     * from two devices at once cannot overwrite one decrement with the other.
      */
     public UserInventory consumeInventoryItem(UUID id, UUID userId, Integer quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity to consume must be greater than 0");
         }
 
-        UserInventory item = getInventoryItemById(id);
-
-        // Verify ownership
-        if (!item.getUser().getId().equals(userId)) {
-            throw new IllegalArgumentException("You can only consume your own inventory items");
-        }
+        UserInventory item = userInventoryRepository.consume(id, userId, quantity)
+                .orElseThrow(() -> consumeRejected(id, userId));
 
-        int currentQuantity = item.getQuantity();
-        if (quantity > currentQuantity) {
-            throw new IllegalArgumentException("Cannot consume more than available quantity (" + currentQuantity + ")");
+        if (item.getQuantity() == 0) {
+            userInventoryRepository.deleteIfEmpty(id);
+            return null; // Item removed
         }
+        return item;
+    }
 
-        int newQuantity = currentQuantity - quantity;
+    /**
+     * Only reached when the UPDATE matched nothing; reads the item to tell the caller why.
+     */
+    private IllegalArgumentException consumeRejected(UUID id, UUID userId) {
+        UserInventory item = getInventoryItemById(id);
 
-        if (newQuantity == 0) {
-            userInventoryRepository.delete(item);
-            return null; // Item removed
-        } else {
-            item.setQuantity(newQuantity);
-            return userInventoryRepository.save(item);
+        if (!item.getUser().getId().equals(userId)) {
+            return new IllegalArgumentException("You can only consume your own inventory items");
         }
+        return new IllegalArgumentException(
+                "Cannot consume more than available quantity (" + item.getQuantity() + ")");
     }
 }
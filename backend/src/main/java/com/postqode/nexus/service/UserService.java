@@ -4,6 +4,7 @@ import com.postqode.nexus.dto.UserRequest;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.model.UserRole;
 import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.UserStatusCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatusCache userStatusCache;
+    private final ProductCache productCache;
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -43,6 +46,8 @@ public class UserService {
                 .isEnabled(true)
                 .build();
 
+        // A lookup before the user existed may have cached the name as missing
+        userStatusCache.evict(user.getUsername());
         return userRepository.save(user);
     }
 
@@ -57,6 +62,14 @@ public class UserService {
             throw new IllegalArgumentException("Username already exists: " + userRequest.getUsername());
         }
 
+        // Role and username changes must reach stateless token checks
+        userStatusCache.evict(user.getUsername());
+        userStatusCache.evict(userRequest.getUsername());
+        if (!user.getUsername().equals(userRequest.getUsername())) {
+            // Cached product responses carry created-by and updated-by usernames
+            productCache.evictAll();
+        }
+
         user.setUsername(userRequest.getUsername());
         user.setEmail(userRequest.getEmail());
         
@@ -79,6 +92,7 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
         user.setIsEnabled(true);
         userRepository.save(user);
+        userStatusCache.evict(user.getUsername());
     }
 
     @Transactional
@@ -87,6 +101,7 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
         user.setIsEnabled(false);
         userRepository.save(user);
+        userStatusCache.evict(user.getUsername());
     }
 
     public boolean isUserEnabled(String username) {
@@ -0,0 +1,167 @@
+-- V10__dashboard_counters.sql
+-- Incrementally maintained dashboard counters
+-- Dashboard reads become single-row lookups instead of COUNT(*) scans over products and activity_logs
+
+-- Running totals: 'products_total' and one 'status:<STATUS>' row per product status
+CREATE TABLE dashboard_counters (
+    name VARCHAR(50) PRIMARY KEY,
+    value BIGINT NOT NULL DEFAULT 0
+);
+
+-- Per-day totals ('products_added', 'actions'); a new day starts from an absent row, so no reset is needed
+CREATE TABLE dashboard_daily_counters (
+    day DATE NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    value BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, name)
+);
+
+-- Statement-level triggers aggregate a whole multi-row statement into one upsert per counter.
+-- Counters are upserted in name order so concurrent writers lock them in the same order.
+CREATE OR REPLACE FUNCTION products_dashboard_counters()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO dashboard_counters (name, value)
+        SELECT name, SUM(delta) FROM (
+            SELECT 'products_total' AS name, 1 AS delta FROM new_rows
+            UNION ALL
+            SELECT 'status:' || status, 1 FROM new_rows
+        ) d
+        GROUP BY name ORDER BY name
+        ON CONFLICT (name) DO UPDATE SET value = dashboard_counters.value + EXCLUDED.value;
+
+        INSERT INTO dashboard_daily_counters (day, name, value)
+        SELECT created_at::date, 'products_added', COUNT(*) FROM new_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY created_at::date ORDER BY 1
+        ON CONFLICT (day, name) DO UPDATE SET value = dashboard_daily_counters.value + EXCLUDED.value;
+
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO dashboard_counters (name, value)
+        SELECT name, SUM(delta) FROM (
+            SELECT 'products_total' AS name, -1 AS delta FROM old_rows
+            UNION ALL
+            SELECT 'status:' || status, -1 FROM old_rows
+        ) d
+        GROUP BY name ORDER BY name
+        ON CONFLICT (name) DO UPDATE SET value = dashboard_counters.value + EXCLUDED.value;
+
+        INSERT INTO dashboard_daily_counters (day, name, value)
+        SELECT created_at::date, 'products_added', -COUNT(*) FROM old_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY created_at::date ORDER BY 1
+        ON CONFLICT (day, name) DO UPDATE SET value = dashboard_daily_counters.value + EXCLUDED.value;
+
+    ELSE
+        -- Only rows whose status (or creation day) actually moved produce a non-zero delta,
+        -- so ordinary edits do not touch the counter rows at all
+        INSERT INTO dashboard_counters (name, value)
+        SELECT name, SUM(delta) FROM (
+            SELECT 'status:' || status AS name, 1 AS delta FROM new_rows
+            UNION ALL
+            SELECT 'status:' || status, -1 FROM old_rows
+        ) d
+        GROUP BY name HAVING SUM(delta) <> 0 ORDER BY name
+        ON CONFLICT (name) DO UPDATE SET value = dashboard_counters.value + EXCLUDED.value;
+
+        INSERT INTO dashboard_daily_counters (day, name, value)
+        SELECT day, 'products_added', SUM(delta) FROM (
+            SELECT created_at::date AS day, 1 AS delta FROM new_rows WHERE created_at IS NOT NULL
+            UNION ALL
+            SELECT created_at::date, -1 FROM old_rows WHERE created_at IS NOT NULL
+        ) d
+        GROUP BY day HAVING SUM(delta) <> 0 ORDER BY day
+        ON CONFLICT (day, name) DO UPDATE SET value = dashboard_daily_counters.value + EXCLUDED.value;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER products_dashboard_counters_insert AFTER INSERT ON products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION products_dashboard_counters();
+
+CREATE TRIGGER products_dashboard_counters_update AFTER UPDATE ON products
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION products_dashboard_counters();
+
+CREATE TRIGGER products_dashboard_counters_delete AFTER DELETE ON products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION products_dashboard_counters();
+
+CREATE OR REPLACE FUNCTION activity_logs_dashboard_counters()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO dashboard_daily_counters (day, name, value)
+        SELECT created_at::date, 'actions', COUNT(*) FROM new_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY created_at::date ORDER BY 1
+        ON CONFLICT (day, name) DO UPDATE SET value = dashboard_daily_counters.value + EXCLUDED.value;
+    ELSE
+        INSERT INTO dashboard_daily_counters (day, name, value)
+        SELECT created_at::date, 'actions', -COUNT(*) FROM old_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY created_at::date ORDER BY 1
+        ON CONFLICT (day, name) DO UPDATE SET value = dashboard_daily_counters.value + EXCLUDED.value;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER activity_logs_dashboard_counters_insert AFTER INSERT ON activity_logs
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION activity_logs_dashboard_counters();
+
+CREATE TRIGGER activity_logs_dashboard_counters_delete AFTER DELETE ON activity_logs
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION activity_logs_dashboard_counters();
+
+-- Recomputes the counters from the source tables and returns how many had drifted.
+-- SHARE locks block writers (not readers) so no increment can slip between the count and the overwrite.
+-- Daily rows older than keep_days are pruned.
+CREATE OR REPLACE FUNCTION reconcile_dashboard_counters(keep_days INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    corrected INTEGER;
+    corrected_daily INTEGER;
+BEGIN
+    LOCK TABLE products, activity_logs IN SHARE MODE;
+
+    WITH actual AS (
+        SELECT 'products_total'::VARCHAR AS name, COUNT(*) AS value FROM products
+        UNION ALL
+        SELECT 'status:' || status, COUNT(*) FROM products GROUP BY status
+    ), expected AS (
+        SELECT COALESCE(a.name, c.name) AS name, COALESCE(a.value, 0) AS value, c.value AS current
+        FROM actual a FULL JOIN dashboard_counters c ON c.name = a.name
+    )
+    INSERT INTO dashboard_counters (name, value)
+    SELECT name, value FROM expected WHERE current IS DISTINCT FROM value ORDER BY name
+    ON CONFLICT (name) DO UPDATE SET value = EXCLUDED.value;
+    GET DIAGNOSTICS corrected = ROW_COUNT;
+
+    WITH actual AS (
+        SELECT 'products_added'::VARCHAR AS name, COUNT(*) AS value FROM products
+        WHERE created_at >= CURRENT_DATE AND created_at < CURRENT_DATE + 1
+        UNION ALL
+        SELECT 'actions', COUNT(*) FROM activity_logs
+        WHERE created_at >= CURRENT_DATE AND created_at < CURRENT_DATE + 1
+    )
+    INSERT INTO dashboard_daily_counters (day, name, value)
+    SELECT CURRENT_DATE, a.name, a.value
+    FROM actual a LEFT JOIN dashboard_daily_counters c ON c.day = CURRENT_DATE AND c.name = a.name
+    WHERE c.value IS DISTINCT FROM a.value
+    ORDER BY a.name
+    ON CONFLICT (day, name) DO UPDATE SET value = EXCLUDED.value;
+    GET DIAGNOSTICS corrected_daily = ROW_COUNT;
+
+    DELETE FROM dashboard_daily_counters WHERE day < CURRENT_DATE - keep_days;
+
+    RETURN corrected + corrected_daily;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Seed from the existing data
+SELECT reconcile_dashboard_counters(7);
@@ -0,0 +1,57 @@
+-- V11__activity_user_daily_rollup.sql
+-- Per-user, per-day activity rollup
+-- activityByUser reads whole days from here and only scans activity_logs for the partial first day
+
+CREATE TABLE activity_user_daily (
+    day DATE NOT NULL,
+    user_id UUID NOT NULL,
+    action_count BIGINT NOT NULL DEFAULT 0,
+    last_action TIMESTAMP,
+    PRIMARY KEY (day, user_id)
+);
+
+-- Maintained by the existing activity_logs statement triggers alongside the dashboard counters
+CREATE OR REPLACE FUNCTION activity_logs_dashboard_counters()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO dashboard_daily_counters (day, name, value)
+        SELECT created_at::date, 'actions', COUNT(*) FROM new_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY created_at::date ORDER BY 1
+        ON CONFLICT (day, name) DO UPDATE SET value = dashboard_daily_counters.value + EXCLUDED.value;
+
+        INSERT INTO activity_user_daily (day, user_id, action_count, last_action)
+        SELECT created_at::date, user_id, COUNT(*), MAX(created_at) FROM new_rows
+        WHERE created_at IS NOT NULL AND user_id IS NOT NULL
+        GROUP BY created_at::date, user_id ORDER BY 1, 2
+        ON CONFLICT (day, user_id) DO UPDATE SET
+            action_count = activity_user_daily.action_count + EXCLUDED.action_count,
+            last_action = GREATEST(activity_user_daily.last_action, EXCLUDED.last_action);
+    ELSE
+        INSERT INTO dashboard_daily_counters (day, name, value)
+        SELECT created_at::date, 'actions', -COUNT(*) FROM old_rows
+        WHERE created_at IS NOT NULL
+        GROUP BY created_at::date ORDER BY 1
+        ON CONFLICT (day, name) DO UPDATE SET value = dashboard_daily_counters.value + EXCLUDED.value;
+
+        -- last_action is left as is; deletes only happen for old, already-aggregated days
+        UPDATE activity_user_daily r
+        SET action_count = r.action_count - d.removed
+        FROM (
+            SELECT created_at::date AS day, user_id, COUNT(*) AS removed FROM old_rows
+            WHERE created_at IS NOT NULL AND user_id IS NOT NULL
+            GROUP BY created_at::date, user_id
+        ) d
+        WHERE r.day = d.day AND r.user_id = d.user_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Seed from the existing activity
+INSERT INTO activity_user_daily (day, user_id, action_count, last_action)
+SELECT created_at::date, user_id, COUNT(*), MAX(created_at)
+FROM activity_logs
+WHERE created_at IS NOT NULL AND user_id IS NOT NULL
+GROUP BY created_at::date, user_id;
@@ -0,0 +1,22 @@
+-- V12__uuid_v7_defaults.sql
+-- Time-ordered UUIDv7 keys for the append-heavy tables
+-- Random v4 keys insert all over the primary key index; v7 keys start with the time, so new
+-- rows go to the rightmost leaf. The entities generate v7 themselves (@UuidV7); these defaults
+-- cover rows inserted through JDBC and COPY (activity log writer, bulk import).
+
+-- Same layout as UuidV7Generator: 48 bits of Unix milliseconds, version 7, random rest
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS UUID AS $$
+    SELECT encode(
+        set_bit(set_bit(
+            overlay(uuid_send(gen_random_uuid())
+                    PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::BIGINT) FROM 3)
+                    FROM 1 FOR 6),
+            52, 1), 53, 1),
+        'hex')::UUID;
+$$ LANGUAGE sql VOLATILE;
+
+ALTER TABLE activity_logs ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE orders ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE products ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE user_inventory ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,61 @@
+-- V13__partition_activity_logs.sql
+-- Range-partition activity_logs by month on created_at
+-- Queries filtering on created_at only touch the months they cover, and old months are
+-- removed by detaching and dropping their partition (ActivityLogPartitionMaintenance)
+-- instead of a DELETE. The primary key has to include the partition key.
+
+-- Creates the partition holding the given date's month, if missing; returns its name
+CREATE OR REPLACE FUNCTION create_activity_logs_partition(month DATE)
+RETURNS TEXT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', month)::DATE;
+    partition_name TEXT := 'activity_logs_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF activity_logs FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, (month_start + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE activity_logs RENAME TO activity_logs_unpartitioned;
+ALTER INDEX activity_logs_pkey RENAME TO activity_logs_unpartitioned_pkey;
+DROP TRIGGER activity_logs_dashboard_counters_insert ON activity_logs_unpartitioned;
+DROP TRIGGER activity_logs_dashboard_counters_delete ON activity_logs_unpartitioned;
+
+CREATE TABLE activity_logs (
+    id UUID NOT NULL DEFAULT uuid_generate_v7(),
+    user_id UUID REFERENCES users(id),
+    product_id UUID REFERENCES products(id),
+    action_type VARCHAR(20) NOT NULL,
+    old_value JSONB,
+    new_value JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Every month with existing rows, up to three months ahead; the maintenance job keeps it that way
+SELECT create_activity_logs_partition(month::DATE)
+FROM generate_series(
+        date_trunc('month', LEAST(CURRENT_DATE, (SELECT MIN(created_at) FROM activity_logs_unpartitioned))),
+        date_trunc('month', CURRENT_DATE) + INTERVAL '3 months',
+        INTERVAL '1 month') AS month;
+
+-- Copied before the triggers exist: the counters already include these rows
+INSERT INTO activity_logs (id, user_id, product_id, action_type, old_value, new_value, created_at)
+SELECT id, user_id, product_id, action_type, old_value, new_value, COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM activity_logs_unpartitioned;
+
+DROP TABLE activity_logs_unpartitioned;
+
+CREATE INDEX idx_activity_logs_user ON activity_logs(user_id);
+CREATE INDEX idx_activity_logs_product ON activity_logs(product_id);
+CREATE INDEX idx_activity_logs_created ON activity_logs(created_at);
+CREATE INDEX idx_activity_logs_action_type ON activity_logs(action_type);
+
+CREATE TRIGGER activity_logs_dashboard_counters_insert AFTER INSERT ON activity_logs
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION activity_logs_dashboard_counters();
+
+CREATE TRIGGER activity_logs_dashboard_counters_delete AFTER DELETE ON activity_logs
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION activity_logs_dashboard_counters();
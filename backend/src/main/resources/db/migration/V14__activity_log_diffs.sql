@@ -0,0 +1,10 @@
+-- V14__activity_log_diffs.sql
+-- Activity log entries for updates can store only the changed fields (value_format DIFF)
+-- Existing rows hold full snapshots. Reconstructing a DIFF entry walks back from it to the
+-- product's last FULL entry, so the product index gets created_at as a second column.
+
+ALTER TABLE activity_logs ADD COLUMN value_format VARCHAR(10) NOT NULL DEFAULT 'FULL'
+    CHECK (value_format IN ('FULL', 'DIFF'));
+
+CREATE INDEX idx_activity_logs_product_created ON activity_logs(product_id, created_at);
+DROP INDEX idx_activity_logs_product;
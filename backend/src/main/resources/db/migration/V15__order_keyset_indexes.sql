@@ -0,0 +1,25 @@
+-- V15__order_keyset_indexes.sql
+-- Composite (filter column, created_at, id) indexes backing the keyset-paginated order listing
+-- Orders are listed newest first, and the next window starts after the last (created_at, id).
+-- Each filter column leads one index, so a filtered window is a single backward range scan.
+-- The single-column indexes are prefixes of the new ones and are dropped.
+-- A NULL created_at cannot be carried in a cursor and is skipped by the seek, so created_at and
+-- updated_at become NOT NULL first; the V4 defaults already fill them on every insert path.
+
+UPDATE orders SET created_at = COALESCE(created_at, updated_at, LOCALTIMESTAMP),
+                  updated_at = COALESCE(updated_at, created_at, LOCALTIMESTAMP)
+WHERE created_at IS NULL OR updated_at IS NULL;
+
+ALTER TABLE orders
+    ALTER COLUMN created_at SET NOT NULL,
+    ALTER COLUMN updated_at SET NOT NULL;
+
+CREATE INDEX idx_orders_status_created_id ON orders(status, created_at, id);
+CREATE INDEX idx_orders_user_created_id ON orders(user_id, created_at, id);
+CREATE INDEX idx_orders_product_created_id ON orders(product_id, created_at, id);
+CREATE INDEX idx_orders_created_id ON orders(created_at, id);
+
+DROP INDEX idx_orders_status;
+DROP INDEX idx_orders_user;
+DROP INDEX idx_orders_product;
+DROP INDEX idx_orders_created;
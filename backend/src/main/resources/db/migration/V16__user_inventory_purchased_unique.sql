@@ -0,0 +1,25 @@
+-- V16__user_inventory_purchased_unique.sql
+-- One PURCHASED inventory row per user and product
+-- Approvals merge into that row with INSERT ... ON CONFLICT, which needs a unique index to
+-- arbitrate on. Duplicates left by earlier concurrent approvals are folded into the oldest row.
+
+WITH ranked AS (
+    SELECT id,
+           FIRST_VALUE(id) OVER w AS keep_id,
+           SUM(quantity) OVER (PARTITION BY user_id, product_id) AS total
+    FROM user_inventory
+    WHERE source = 'PURCHASED'
+    WINDOW w AS (PARTITION BY user_id, product_id ORDER BY created_at, id)
+),
+merged AS (
+    UPDATE user_inventory ui
+    SET quantity = ranked.total
+    FROM ranked
+    WHERE ui.id = ranked.id AND ranked.id = ranked.keep_id
+)
+DELETE FROM user_inventory ui
+USING ranked
+WHERE ui.id = ranked.id AND ranked.id <> ranked.keep_id;
+
+CREATE UNIQUE INDEX uq_user_inventory_purchased ON user_inventory(user_id, product_id)
+    WHERE source = 'PURCHASED';
@@ -0,0 +1,24 @@
+-- V17__stock_reservations.sql
+-- Stock reserved by PENDING orders
+-- Creating an order reserves its quantity on the product; approval turns the reservation into
+-- a stock decrement, rejection and cancellation release it, and OrderReservationSweeper releases
+-- reservations that outlive app.order-reservation.ttl-ms while the order stays PENDING.
+-- Available-to-promise is quantity - reserved_quantity, read from the product row.
+
+ALTER TABLE products ADD COLUMN reserved_quantity INTEGER NOT NULL DEFAULT 0
+    CONSTRAINT chk_products_reserved_quantity CHECK (reserved_quantity >= 0);
+
+-- Non-null while the order holds its reservation
+ALTER TABLE orders ADD COLUMN reservation_expires_at TIMESTAMP;
+
+-- Orders still PENDING hold a reservation from here on, expiring one TTL (48 h by default) after now
+UPDATE orders SET reservation_expires_at = LOCALTIMESTAMP + INTERVAL '48 hours'
+WHERE status = 'PENDING';
+
+UPDATE products p SET reserved_quantity = r.total
+FROM (SELECT product_id, SUM(quantity) AS total FROM orders WHERE status = 'PENDING' GROUP BY product_id) r
+WHERE p.id = r.product_id;
+
+-- Only orders holding a reservation are indexed; the sweeper walks this in expiry order
+CREATE INDEX idx_orders_reservation_expiry ON orders(reservation_expires_at)
+    WHERE reservation_expires_at IS NOT NULL;
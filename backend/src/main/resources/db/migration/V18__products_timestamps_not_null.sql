@@ -0,0 +1,12 @@
+-- V18__products_timestamps_not_null.sql
+-- created_at and updated_at drive keyset pagination (V9). A NULL sort value cannot be carried in
+-- a cursor and is skipped by the < / > seek, so both columns become NOT NULL; the V1 defaults
+-- already fill them on every insert path. SET NOT NULL scans products once under an exclusive lock.
+
+UPDATE products SET created_at = COALESCE(created_at, updated_at, LOCALTIMESTAMP),
+                    updated_at = COALESCE(updated_at, created_at, LOCALTIMESTAMP)
+WHERE created_at IS NULL OR updated_at IS NULL;
+
+ALTER TABLE products
+    ALTER COLUMN created_at SET NOT NULL,
+    ALTER COLUMN updated_at SET NOT NULL;
@@ -0,0 +1,22 @@
+-- V8__product_search.sql
+-- Full-text and trigram search support for products
+-- Replaces sequential scans for '%term%' searches with GIN-backed lookups
+
+-- Enable trigram matching (trusted extension, no superuser required on PG13+)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Weighted full-text document: name ranks above description
+ALTER TABLE products
+    ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- Full-text index
+CREATE INDEX idx_products_search_vector ON products USING GIN (search_vector);
+
+-- Trigram indexes serve substring (LIKE '%term%') matches on the lowered columns
+CREATE INDEX idx_products_name_trgm ON products USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX idx_products_sku_trgm ON products USING GIN (lower(sku) gin_trgm_ops);
+CREATE INDEX idx_products_description_trgm ON products USING GIN (lower(description) gin_trgm_ops);
@@ -0,0 +1,8 @@
+-- V9__product_keyset_indexes.sql
+-- Composite (sort column, id) indexes backing keyset pagination of products
+-- name and sku are already covered by idx_products_name and the sku unique index
+
+CREATE INDEX idx_products_created_id ON products(created_at, id);
+CREATE INDEX idx_products_updated_id ON products(updated_at, id);
+CREATE INDEX idx_products_price_id ON products(price, id);
+CREATE INDEX idx_products_quantity_id ON products(quantity, id);
@@ -0,0 +1,61 @@
+package com.postqode.nexus.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Both pools point at the same database here, so the pool that served a statement is told
+ * apart by the ApplicationName each one sets.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DataSourceRoutingIT {
+
+    private static final String APPLICATION_NAME_SQL = "SELECT current_setting('application_name')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String applicationNameIn(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject(APPLICATION_NAME_SQL, String.class));
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplica() {
+        assertThat(applicationNameIn(true)).isEqualTo("nexus-replica");
+        assertThat(applicationNameIn(false)).isEqualTo("nexus-primary");
+        assertThat(jdbcTemplate.queryForObject(APPLICATION_NAME_SQL, String.class)).isEqualTo("nexus-primary");
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("routing-it-user", null, List.of()));
+
+        applicationNameIn(false);
+
+        assertThat(applicationNameIn(true)).isEqualTo("nexus-primary");
+    }
+}
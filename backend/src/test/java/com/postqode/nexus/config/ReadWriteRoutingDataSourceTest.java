@@ -0,0 +1,114 @@
+package com.postqode.nexus.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for ReadWriteRoutingDataSource.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReadWriteRoutingDataSource(mock(DataSource.class), mock(DataSource.class), 200, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endTransaction();
+        SecurityContextHolder.clearContext();
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        endTransaction();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private Object routeReadOnly() {
+        beginTransaction(true);
+        Object target = routing.determineCurrentLookupKey();
+        endTransaction();
+        return target;
+    }
+
+    private void loginAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    @Test
+    void shouldRouteByTransactionReadOnlyFlag() {
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routeReadOnly());
+
+        beginTransaction(false);
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routing.determineCurrentLookupKey());
+
+        assertEquals(2.0, meterRegistry.get("datasource.routing.connections").tag("target", "primary").counter().count());
+        assertEquals(1.0, meterRegistry.get("datasource.routing.connections").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void shouldKeepReadsOfWritingUserOnPrimaryUntilPinExpires() throws InterruptedException {
+        loginAs("alice");
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+        commit();
+
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, routeReadOnly());
+        assertEquals(1.0, meterRegistry.get("datasource.routing.pinned").counter().count());
+
+        loginAs("bob");
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routeReadOnly());
+
+        Thread.sleep(300);
+        loginAs("alice");
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routeReadOnly());
+    }
+
+    @Test
+    void shouldNotPinAnonymousWrites() {
+        beginTransaction(false);
+        routing.determineCurrentLookupKey();
+        commit();
+
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routeReadOnly());
+    }
+
+    @Test
+    void shouldRouteReadsInsideOnPrimaryToPrimary() {
+        assertEquals(ReadWriteRoutingDataSource.Target.PRIMARY, ReadWriteRoutingDataSource.onPrimary(this::routeReadOnly));
+        assertEquals(ReadWriteRoutingDataSource.Target.REPLICA, routeReadOnly());
+    }
+}
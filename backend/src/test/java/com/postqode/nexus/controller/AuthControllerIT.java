@@ -12,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -104,4 +105,19 @@ public class AuthControllerIT {
         mockMvc.perform(get("/api/v1/auth/me"))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void shouldForbidMetricsToNonAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/activity.log.queue.depth"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void shouldServeMetricsToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/activity.log.queue.depth"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("activity.log.queue.depth"));
+    }
 }
@@ -0,0 +1,156 @@
+package com.postqode.nexus.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postqode.nexus.dto.LoginRequest;
+import com.postqode.nexus.model.Order;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserInventory;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.OrderRepository;
+import com.postqode.nexus.repository.ProductRepository;
+import com.postqode.nexus.repository.UserInventoryRepository;
+import com.postqode.nexus.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Order, inventory and user responses are mapped outside any transaction. This runs without a
+ * test transaction, so a lazy association that a fetch plan misses fails here as it would in
+ * production instead of being loaded through the test's open EntityManager.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class EntityResponseIT {
+
+    private static final String PASSWORD = "Dto@12345";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserInventoryRepository userInventoryRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Product product;
+    private Order order;
+    private UserInventory item;
+    private String token;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("dto-it-" + suffix)
+                .email("dto-it-" + suffix + "@test.com")
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(UserRole.USER)
+                .build());
+        product = productRepository.save(Product.builder()
+                .sku("DTO-IT-" + suffix)
+                .name("DTO IT Product")
+                .price(new BigDecimal("12.50"))
+                .quantity(40)
+                .status(ProductStatus.ACTIVE)
+                .build());
+        order = orderRepository.save(new Order(user, product, 3, Order.OrderStatus.PENDING));
+        item = userInventoryRepository.save(new UserInventory(user, product, "DTO IT Product", 2,
+                UserInventory.InventorySource.PURCHASED, "Purchased via order"));
+
+        String login = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequest(user.getUsername(), PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(login).get("token").asText();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_inventory WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    public void shouldReturnMyOrdersWithUserAndProduct() throws Exception {
+        mockMvc.perform(get("/api/v1/orders/my-orders").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(order.getId().toString()))
+                .andExpect(jsonPath("$[0].user.username").value(user.getUsername()))
+                .andExpect(jsonPath("$[0].product.name").value("DTO IT Product"))
+                .andExpect(jsonPath("$[0].product.price").value(12.50))
+                .andExpect(jsonPath("$[0].status").value("PENDING"));
+    }
+
+    @Test
+    public void shouldLoadUserAndProductForOrdersByStatusAndId() throws Exception {
+        mockMvc.perform(get("/api/v1/orders/status/PENDING").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].user.username", hasItem(user.getUsername())));
+
+        mockMvc.perform(get("/api/v1/orders/{id}", order.getId()).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.product.quantity").value(40))
+                .andExpect(jsonPath("$.user.id").value(user.getId().toString()));
+    }
+
+    @Test
+    public void shouldReturnInventoryItemsWithReferencedIds() throws Exception {
+        mockMvc.perform(get("/api/v1/user-inventory").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(item.getId().toString()))
+                .andExpect(jsonPath("$[0].userId").value(user.getId().toString()))
+                .andExpect(jsonPath("$[0].productId").value(product.getId().toString()))
+                .andExpect(jsonPath("$[0].source").value("PURCHASED"));
+    }
+
+    @Test
+    public void shouldNotExposePasswordHash() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{id}", user.getId()).with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(user.getUsername()))
+                .andExpect(jsonPath("$.isEnabled").value(true))
+                .andExpect(jsonPath("$.password").doesNotExist());
+    }
+}
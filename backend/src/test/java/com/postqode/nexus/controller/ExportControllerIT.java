@@ -0,0 +1,107 @@
+package com.postqode.nexus.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exports stream on an async thread, so this runs against committed data rather than in a
+ * rolled-back test transaction, and only reads.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ExportControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MvcResult export(String path, String format) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldExportProductsAsCsv() throws Exception {
+        MvcResult result = export("/api/v1/export/products", "CSV");
+
+        assertThat(result.getResponse().getContentType()).startsWith("text/csv");
+        assertThat(result.getResponse().getHeader("Content-Disposition")).contains("products.csv");
+        String[] lines = result.getResponse().getContentAsString().split("\r\n");
+        assertThat(lines[0]).isEqualTo(
+                "id,sku,name,description,price,quantity,status,category_id,category_name,created_at,updated_at");
+        Integer products = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class);
+        // Descriptions may hold line breaks, so count records by their leading UUID instead of raw lines
+        long records = Arrays.stream(lines).skip(1).filter(line -> line.matches("^[0-9a-f-]{36},.*")).count();
+        assertThat(records).isEqualTo(products.longValue());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldExportOrdersAsNdjson() throws Exception {
+        MvcResult result = export("/api/v1/export/orders", "NDJSON");
+
+        assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+        String body = result.getResponse().getContentAsString();
+        String[] lines = body.isEmpty() ? new String[0] : body.split("\n");
+        Integer orders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+        assertThat(lines).hasSize(orders);
+        for (String line : lines) {
+            JsonNode order = objectMapper.readTree(line);
+            assertThat(order.get("username").isTextual()).isTrue();
+            assertThat(order.get("quantity").isNumber()).isTrue();
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldEmbedActivityLogValuesAsJson() throws Exception {
+        MvcResult result = export("/api/v1/export/activity-logs", "NDJSON");
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).endsWith("\n");
+        boolean sawObject = false;
+        for (String line : body.split("\n")) {
+            JsonNode log = objectMapper.readTree(line);
+            assertThat(log.has("action_type")).isTrue();
+            sawObject |= log.get("new_value").isObject();
+        }
+        assertThat(sawObject).isTrue();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void shouldForbidExportForNonAdmins() throws Exception {
+        mockMvc.perform(get("/api/v1/export/products"))
+                .andExpect(status().isForbidden())
+                .andExpect(header().doesNotExist("Content-Disposition"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.postqode.nexus.controller;
 
+import com.postqode.nexus.dto.ProductCursorPage;
 import com.postqode.nexus.dto.ProductResponse;
 import com.postqode.nexus.dto.graphql.*;
 import com.postqode.nexus.model.ActionType;
@@ -103,6 +104,24 @@ public class GraphQLControllerTest {
         assertTrue(connection.getItems().get(0).getName().toLowerCase().contains("laptop"));
     }
 
+    @Test
+    public void shouldScrollProductsWithCursor() {
+        ProductCursorPage window = ProductCursorPage.builder()
+                .items(Collections.emptyList())
+                .nextCursor(null)
+                .hasNext(false)
+                .size(5)
+                .build();
+
+        when(productService.getProductsByCursor(eq(ProductStatus.ACTIVE), any(), eq("mouse"), eq("abc"), eq(5), any()))
+                .thenReturn(window);
+
+        ProductCursorPage result = graphQLController.productScroll("mouse", ProductStatus.ACTIVE, "abc", 5);
+
+        assertFalse(result.isHasNext());
+        assertEquals(5, result.getSize());
+    }
+
     // ==================== SINGLE PRODUCT QUERY TESTS ====================
 
     @Test
@@ -0,0 +1,189 @@
+package com.postqode.nexus.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postqode.nexus.model.Order;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.OrderRepository;
+import com.postqode.nexus.repository.ProductRepository;
+import com.postqode.nexus.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks the keyset-paginated order listing window by window with each filter, and checks the
+ * status filter is served by the (status, created_at, id) index.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(roles = "ADMIN")
+public class OrderScrollIT {
+
+    // Far in the past, so the demo orders never interleave with these
+    private static final LocalDateTime BASE = LocalDateTime.of(2001, 1, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Product first;
+    private Product second;
+    private final List<UUID> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("scroll-it-" + suffix)
+                .email("scroll-it-" + suffix + "@test.com")
+                .password("hash")
+                .role(UserRole.USER)
+                .build());
+        first = saveProduct("SCROLL-A-" + suffix);
+        second = saveProduct("SCROLL-B-" + suffix);
+
+        // Five orders one hour apart; the last two share a timestamp so the id breaks the tie
+        for (int i = 0; i < 5; i++) {
+            Order order = orderRepository.saveAndFlush(new Order(user, i % 2 == 0 ? first : second, i + 1,
+                    i < 2 ? Order.OrderStatus.APPROVED : Order.OrderStatus.PENDING));
+            jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                    Timestamp.valueOf(BASE.plusHours(Math.min(i, 3))), order.getId());
+            newestFirst.add(0, order.getId());
+        }
+        if (newestFirst.get(0).compareTo(newestFirst.get(1)) < 0) {
+            UUID swap = newestFirst.get(0);
+            newestFirst.set(0, newestFirst.get(1));
+            newestFirst.set(1, swap);
+        }
+    }
+
+    private Product saveProduct(String sku) {
+        return productRepository.save(Product.builder()
+                .sku(sku)
+                .name("Scroll " + sku)
+                .price(BigDecimal.ONE)
+                .quantity(100)
+                .status(ProductStatus.ACTIVE)
+                .build());
+    }
+
+    @Test
+    public void shouldWalkAllOrdersOfUserNewestFirst() throws Exception {
+        List<JsonNode> rows = scrollAll(() -> get("/api/v1/orders/scroll").param("userId", user.getId().toString()), 2);
+
+        assertThat(rows).extracting(row -> UUID.fromString(row.get("id").asText())).containsExactlyElementsOf(newestFirst);
+        JsonNode newest = rows.get(0);
+        assertThat(newest.get("username").asText()).isEqualTo(user.getUsername());
+        assertThat(newest.get("productSku").asText()).startsWith("SCROLL-");
+        assertThat(newest.has("product")).isFalse();
+    }
+
+    @Test
+    public void shouldCombineFilters() throws Exception {
+        List<JsonNode> pending = scrollAll(() -> get("/api/v1/orders/scroll")
+                .param("userId", user.getId().toString())
+                .param("status", "PENDING"), 1);
+        assertThat(pending).hasSize(3).allMatch(row -> row.get("status").asText().equals("PENDING"));
+
+        List<JsonNode> firstProduct = scrollAll(() -> get("/api/v1/orders/scroll")
+                .param("productId", first.getId().toString()), 10);
+        assertThat(firstProduct).hasSize(3);
+
+        List<JsonNode> range = scrollAll(() -> get("/api/v1/orders/scroll")
+                .param("userId", user.getId().toString())
+                .param("from", BASE.plusHours(1).toString())
+                .param("to", BASE.plusHours(3).toString()), 10);
+        assertThat(range).extracting(row -> row.get("quantity").asInt()).containsExactly(3, 2);
+    }
+
+    @Test
+    public void shouldRejectInvalidCursorAndSize() throws Exception {
+        mockMvc.perform(get("/api/v1/orders/scroll").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/orders/scroll").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void cursorSortColumnIsNotNullable() {
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO orders (user_id, product_id, quantity, created_at) "
+                + "VALUES (?, ?, 1, NULL)", user.getId(), first.getId()))
+                .rootCause()
+                .hasMessageContaining("null value in column \"created_at\"");
+    }
+
+    @Test
+    public void statusWindowShouldBeOneIndexRangeScan() {
+        // On a table this small the planner may as well walk idx_orders_created_id and filter on
+        // status; drop it for this rolled-back transaction to see how the status index is used
+        jdbcTemplate.execute("DROP INDEX idx_orders_created_id");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN (COSTS OFF) SELECT o.id FROM orders o "
+                        + "WHERE o.status = 'PENDING' AND o.created_at <= ? AND (o.created_at < ? OR o.id < ?) "
+                        + "ORDER BY o.created_at DESC, o.id DESC LIMIT 21", String.class,
+                Timestamp.valueOf(BASE), Timestamp.valueOf(BASE), UUID.randomUUID()));
+
+        assertThat(plan).contains("Scan Backward using idx_orders_status_created_id").doesNotContain("Sort");
+    }
+
+    private List<JsonNode> scrollAll(Supplier<MockHttpServletRequestBuilder> request, int size) throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder window = request.get().param("size", String.valueOf(size));
+            if (cursor != null) {
+                window = window.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(window)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("items").forEach(rows::add);
+            assertThat(page.get("items").size()).isLessThanOrEqualTo(size);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        return rows;
+    }
+}
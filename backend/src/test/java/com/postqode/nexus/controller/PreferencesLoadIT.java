@@ -0,0 +1,118 @@
+package com.postqode.nexus.controller;
+
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saturates the preferences endpoints on a deliberately tiny Tomcat pool and checks a catalog
+ * request is still served while every preferences request is waiting out its simulated latency.
+ * With a sleeping worker per preferences request, the catalog request would queue behind them
+ * for at least PREFERENCE_REQUESTS / TOMCAT_THREADS rounds of the minimum latency.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.threads.max=" + PreferencesLoadIT.TOMCAT_THREADS)
+@ActiveProfiles("test")
+public class PreferencesLoadIT {
+
+    static final int TOMCAT_THREADS = 4;
+    private static final int PREFERENCE_REQUESTS = 40;
+    private static final long MIN_PREFERENCE_LATENCY_MS = 400;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String username;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        username = "prefs-load-" + System.nanoTime();
+        userRepository.save(User.builder()
+                .username(username)
+                .password("hash")
+                .role(UserRole.USER)
+                .build());
+        org.springframework.security.core.userdetails.User principal = new org.springframework.security.core.userdetails.User(
+                username, "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_preferences WHERE user_id IN (SELECT id FROM users WHERE username = ?)", username);
+        jdbcTemplate.update("DELETE FROM users WHERE username = ?", username);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    @Test
+    void shouldServeCatalogWhilePreferencesAreSaturated() throws Exception {
+        // Warm up the dispatcher and both code paths so first-request initialisation is not measured
+        client.send(request("/api/v1/products?page=0&size=5").GET().build(), HttpResponse.BodyHandlers.discarding());
+        client.send(request("/api/v1/preferences/metadata?profile=personal").GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        List<CompletableFuture<HttpResponse<Void>>> preferences = new ArrayList<>();
+        for (int i = 0; i < PREFERENCE_REQUESTS; i++) {
+            HttpRequest request = i % 2 == 0
+                    ? request("/api/v1/preferences/metadata?profile=personal").GET().build()
+                    : request("/api/v1/preferences")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"profile\":\"work\",\"values\":{\"displayName\":\"Load Test\"}}"))
+                            .build();
+            preferences.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+
+        // Every preferences request takes at least MIN_PREFERENCE_LATENCY_MS, so they are all still in flight here
+        Thread.sleep(100);
+        long catalogSentAt = System.nanoTime();
+        HttpResponse<String> catalog = client.send(request("/api/v1/products?page=0&size=5").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        long catalogDoneAt = System.nanoTime();
+
+        CompletableFuture.allOf(preferences.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        assertThat(preferences).allSatisfy(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+
+        long blockingLowerBoundMs = PREFERENCE_REQUESTS / TOMCAT_THREADS * MIN_PREFERENCE_LATENCY_MS;
+        assertThat(catalog.statusCode()).isEqualTo(200);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(catalogDoneAt - catalogSentAt)).isLessThan(blockingLowerBoundMs);
+    }
+}
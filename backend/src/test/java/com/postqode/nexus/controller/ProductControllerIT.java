@@ -14,12 +14,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,6 +48,9 @@ public class ProductControllerIT {
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
         @BeforeEach
         void setUp() {
                 // Ensure Users exist for @WithMockUser to resolve in ProductService
@@ -88,8 +93,10 @@ public class ProductControllerIT {
                                 .andExpect(jsonPath("$.sku").value("IT-SKU-001"))
                                 .andExpect(jsonPath("$.id").exists());
 
-                // Verify side effect: It is actually in the DB
+                // Verify side effect: It is actually in the DB, with a time-ordered key
                 assertThat(productRepository.existsBySku("IT-SKU-001")).isTrue();
+                UUID id = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'IT-SKU-001'", UUID.class);
+                assertThat(id.version()).isEqualTo(7);
         }
 
         @Test
@@ -153,6 +160,169 @@ public class ProductControllerIT {
                 assertThat(productRepository.findById(product.getId())).isEmpty();
         }
 
+        @Test
+        @WithMockUser(username = "admin", roles = "ADMIN")
+        public void shouldRankSearchResultsByRelevance() throws Exception {
+                User admin = userRepository.findByUsername("admin").get();
+                productRepository.save(Product.builder()
+                                .sku("IT-SRCH-002")
+                                .name("Plain Bracket")
+                                .description("Fits any zephyrine mount")
+                                .price(BigDecimal.TEN)
+                                .quantity(20)
+                                .status(ProductStatus.ACTIVE)
+                                .createdBy(admin)
+                                .build());
+                productRepository.save(Product.builder()
+                                .sku("IT-SRCH-001")
+                                .name("Zephyrine Mount")
+                                .description("Wall mount")
+                                .price(BigDecimal.TEN)
+                                .quantity(20)
+                                .status(ProductStatus.ACTIVE)
+                                .createdBy(admin)
+                                .build());
+
+                // Name matches outrank description matches
+                mockMvc.perform(get("/api/v1/products").param("search", "zephyrine"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content", hasSize(2)))
+                                .andExpect(jsonPath("$.content[0].sku").value("IT-SRCH-001"))
+                                .andExpect(jsonPath("$.content[1].sku").value("IT-SRCH-002"));
+
+                // Substring matches on SKU still work through the trigram index
+                mockMvc.perform(get("/api/v1/products").param("search", "srch-00"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content", hasSize(2)));
+        }
+
+        @Test
+        @WithMockUser(username = "admin", roles = "ADMIN")
+        public void shouldScrollProductsByCursor() throws Exception {
+                User admin = userRepository.findByUsername("admin").get();
+                for (String sku : new String[] { "IT-CUR-003", "IT-CUR-001", "IT-CUR-002" }) {
+                        productRepository.save(Product.builder()
+                                        .sku(sku)
+                                        .name("Cursor " + sku)
+                                        .price(BigDecimal.TEN)
+                                        .quantity(20)
+                                        .status(ProductStatus.ACTIVE)
+                                        .createdBy(admin)
+                                        .build());
+                }
+
+                String body = mockMvc.perform(get("/api/v1/products/scroll")
+                                .param("search", "it-cur-")
+                                .param("size", "2")
+                                .param("sort", "sku,asc"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items", hasSize(2)))
+                                .andExpect(jsonPath("$.items[0].sku").value("IT-CUR-001"))
+                                .andExpect(jsonPath("$.items[1].sku").value("IT-CUR-002"))
+                                .andExpect(jsonPath("$.hasNext").value(true))
+                                .andReturn().getResponse().getContentAsString();
+                String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+                mockMvc.perform(get("/api/v1/products/scroll")
+                                .param("search", "it-cur-")
+                                .param("size", "2")
+                                .param("cursor", cursor))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items", hasSize(1)))
+                                .andExpect(jsonPath("$.items[0].sku").value("IT-CUR-003"))
+                                .andExpect(jsonPath("$.hasNext").value(false))
+                                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+                mockMvc.perform(get("/api/v1/products/scroll").param("cursor", "not-a-cursor"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @WithMockUser(username = "admin", roles = "ADMIN")
+        public void shouldImportCsv_AndReportRejectedRows() throws Exception {
+                productRepository.saveAndFlush(Product.builder()
+                                .sku("IT-IMP-EXISTING")
+                                .name("Existing")
+                                .price(BigDecimal.ONE)
+                                .quantity(1)
+                                .status(ProductStatus.ACTIVE)
+                                .build());
+                String csv = "sku,name,description,price,quantity,category_id,status\r\n"
+                                + "IT-IMP-001,\"Widget, large\",\"Says \"\"hi\"\"\ttabbed\",12.50,0,,\n"
+                                + "IT-IMP-002,Gadget,,3,5,,\n"
+                                + "IT-IMP-001,Widget again,,1,1,,\n"
+                                + "IT-IMP-EXISTING,Clash,,1,1,,\n"
+                                + "IT-IMP-003,Bad price,,abc,1,,\n"
+                                + "IT-IMP-004,,,1,1,,\n"
+                                + "IT-IMP-005,No category,,1,1," + UUID.randomUUID() + ",\n"
+                                + "IT-IMP-006,Restocked,,1,100,,out_of_stock\n"
+                                + "IT-IMP-007,Bad status,,1,1,,SOLD\n";
+
+                mockMvc.perform(post("/api/v1/products/import")
+                                .contentType("text/csv")
+                                .content(csv))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.format").value("CSV"))
+                                .andExpect(jsonPath("$.totalRows").value(9))
+                                .andExpect(jsonPath("$.imported").value(3))
+                                .andExpect(jsonPath("$.rejected").value(6))
+                                .andExpect(jsonPath("$.errors", hasSize(6)))
+                                .andExpect(jsonPath("$.errors[0].row").value(3))
+                                .andExpect(jsonPath("$.errors[0].message").value("Duplicate SKU in import, first seen on row 1"))
+                                .andExpect(jsonPath("$.errors[1].message").value("Product with SKU IT-IMP-EXISTING already exists"))
+                                .andExpect(jsonPath("$.errors[2].message").value("Invalid price: abc"))
+                                .andExpect(jsonPath("$.errors[3].message").value("Name is required"))
+                                .andExpect(jsonPath("$.errors[4].message").value("Category not found"))
+                                .andExpect(jsonPath("$.errors[5].row").value(9))
+                                .andExpect(jsonPath("$.errors[5].message").value("Invalid status: SOLD"));
+
+                Map<String, Object> widget = jdbcTemplate.queryForMap(
+                                "SELECT name, description, status FROM products WHERE sku = 'IT-IMP-001'");
+                assertThat(widget.get("name")).isEqualTo("Widget, large");
+                assertThat(widget.get("description")).isEqualTo("Says \"hi\"\ttabbed");
+                assertThat(widget.get("status")).isEqualTo(ProductStatus.OUT_OF_STOCK.name());
+                assertThat(jdbcTemplate.queryForObject("SELECT status FROM products WHERE sku = 'IT-IMP-002'", String.class))
+                                .isEqualTo(ProductStatus.LOW_STOCK.name());
+                // Like POST /products, the stored status follows the imported quantity
+                assertThat(jdbcTemplate.queryForObject("SELECT status FROM products WHERE sku = 'IT-IMP-006'", String.class))
+                                .isEqualTo(ProductStatus.ACTIVE.name());
+        }
+
+        @Test
+        @WithMockUser(username = "admin", roles = "ADMIN")
+        public void shouldImportNdjson() throws Exception {
+                String ndjson = "{\"sku\":\"IT-IMP-J1\",\"name\":\"Json \\\\ one\",\"price\":9.99,\"quantity\":3}\n"
+                                + "\n"
+                                + "{\"sku\":\"IT-IMP-J2\",\"name\":\"Json two\",\"price\":-1,\"quantity\":3}\n"
+                                + "{not json}\n";
+
+                mockMvc.perform(post("/api/v1/products/import")
+                                .contentType("application/x-ndjson")
+                                .content(ndjson))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.format").value("NDJSON"))
+                                .andExpect(jsonPath("$.totalRows").value(3))
+                                .andExpect(jsonPath("$.imported").value(1))
+                                .andExpect(jsonPath("$.errors[0].row").value(2))
+                                .andExpect(jsonPath("$.errors[0].sku").value("IT-IMP-J2"))
+                                .andExpect(jsonPath("$.errors[1].row").value(3));
+
+                assertThat(jdbcTemplate.queryForObject("SELECT name FROM products WHERE sku = 'IT-IMP-J1'", String.class))
+                                .isEqualTo("Json \\ one");
+                // Imported rows get their key from the uuid_generate_v7() column default
+                assertThat(jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'IT-IMP-J1'", UUID.class)
+                                .version()).isEqualTo(7);
+        }
+
+        @Test
+        @WithMockUser(username = "admin", roles = "ADMIN")
+        public void shouldRejectImportWithoutRequiredColumns() throws Exception {
+                mockMvc.perform(post("/api/v1/products/import")
+                                .contentType("text/csv")
+                                .content("sku,name\nA,B\n"))
+                                .andExpect(status().isBadRequest());
+        }
+
         @Test
         @WithMockUser(roles = "USER")
         public void shouldForbidNonAdminActions() throws Exception {
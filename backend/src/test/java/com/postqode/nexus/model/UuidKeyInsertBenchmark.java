@@ -0,0 +1,112 @@
+package com.postqode.nexus.model;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Insert benchmark of random (v4) against time-ordered (v7) primary keys on a table shaped
+ * like activity_logs: rows are appended in batches the way ActivityLogWriter does, into two
+ * scratch tables that are dropped afterwards. Prints throughput per million rows, then the
+ * size of the table and its primary key index and the WAL written.
+ *
+ * Not part of the test suite. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.postqode.nexus.model.UuidKeyInsertBenchmark [rows] [jdbc-url] [user] [password]
+ * </pre>
+ */
+public class UuidKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 200;
+    private static final int ROWS_PER_COMMIT = 50_000;
+    private static final int REPORT_EVERY = 1_000_000;
+
+    public static void main(String[] args) throws SQLException {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        String url = args.length > 1 ? args[1] : "jdbc:postgresql://localhost:5432/nexus";
+        Properties properties = new Properties();
+        properties.setProperty("user", args.length > 2 ? args[2] : "nexus");
+        properties.setProperty("password", args.length > 3 ? args[3] : "nexus123");
+        properties.setProperty("reWriteBatchedInserts", "true");
+
+        try (Connection connection = DriverManager.getConnection(url, properties)) {
+            run(connection, "uuid_bench_v4", UUID::randomUUID, rows);
+            run(connection, "uuid_bench_v7", UuidV7Generator::generate, rows);
+        }
+    }
+
+    private static void run(Connection connection, String table, Supplier<UUID> ids, long rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, user_id UUID, "
+                    + "action_type VARCHAR(50) NOT NULL, new_value JSONB, created_at TIMESTAMP NOT NULL)");
+            statement.execute("CREATE INDEX " + table + "_created_at ON " + table + " (created_at)");
+        }
+        UUID[] users = new UUID[50];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = UUID.randomUUID();
+        }
+
+        long walBefore = currentWalLsn(connection);
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        long intervalStart = start;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table
+                + " (id, user_id, action_type, new_value, created_at) VALUES (?, ?, ?, CAST(? AS jsonb), ?)")) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (long row = 1; row <= rows; row++) {
+                insert.setObject(1, ids.get());
+                insert.setObject(2, users[random.nextInt(users.length)]);
+                insert.setString(3, "UPDATE");
+                insert.setObject(4, "{\"quantity\": " + random.nextInt(1000) + "}", Types.OTHER);
+                insert.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                insert.addBatch();
+                if (row % BATCH_SIZE == 0 || row == rows) {
+                    insert.executeBatch();
+                }
+                if (row % ROWS_PER_COMMIT == 0 || row == rows) {
+                    connection.commit();
+                }
+                if (row % REPORT_EVERY == 0) {
+                    long now = System.nanoTime();
+                    System.out.printf("%s: %,d rows, %,.0f rows/s over the last %,d%n",
+                            table, row, REPORT_EVERY / ((now - intervalStart) / 1e9), REPORT_EVERY);
+                    intervalStart = now;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        connection.setAutoCommit(true);
+
+        long wal = currentWalLsn(connection) - walBefore;
+        try (Statement statement = connection.createStatement();
+             ResultSet sizes = statement.executeQuery("SELECT pg_relation_size('" + table + "'), "
+                     + "pg_relation_size('" + table + "_pkey'), pg_relation_size('" + table + "_created_at')")) {
+            sizes.next();
+            System.out.printf("%s: %,d rows in %.1f s (%,.0f rows/s), table %,d MB, pkey %,d MB, "
+                            + "created_at index %,d MB, WAL %,d MB%n",
+                    table, rows, seconds, rows / seconds, sizes.getLong(1) >> 20, sizes.getLong(2) >> 20,
+                    sizes.getLong(3) >> 20, wal >> 20);
+            statement.execute("DROP TABLE " + table);
+        }
+    }
+
+    private static long currentWalLsn(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet lsn = statement.executeQuery("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::BIGINT")) {
+            lsn.next();
+            return lsn.getLong(1);
+        }
+    }
+}
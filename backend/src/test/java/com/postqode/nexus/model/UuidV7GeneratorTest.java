@@ -0,0 +1,36 @@
+package com.postqode.nexus.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UuidV7Generator.
+ */
+public class UuidV7GeneratorTest {
+
+    @Test
+    void shouldSetVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.generate();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1, "timestamp " + timestamp);
+    }
+
+    @Test
+    void shouldBeStrictlyIncreasingWithinOneMillisecond() {
+        UUID previous = UuidV7Generator.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7Generator.generate();
+            // The leading 64 bits alone are unique and increasing: timestamp and counter
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+    }
+}
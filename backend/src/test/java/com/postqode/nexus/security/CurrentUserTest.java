@@ -0,0 +1,77 @@
+package com.postqode.nexus.security;
+
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CurrentUser.
+ * Focus on resolving the caller from the principal without a user lookup.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CurrentUserTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CurrentUser currentUser;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldResolveAuthenticatedUserWithoutQuery() {
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "admin", UserRole.ADMIN, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertSame(principal, currentUser.get());
+        assertEquals(principal.getId(), currentUser.getId());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldLookUpOtherPrincipalsByUsername() {
+        User user = User.builder().id(UUID.randomUUID()).username("user").role(UserRole.USER).build();
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new org.springframework.security.core.userdetails.User("user", "", List.of()), null, List.of()));
+
+        AuthenticatedUser resolved = currentUser.get();
+
+        assertEquals(user.getId(), resolved.getId());
+        assertEquals(UserRole.USER, resolved.getRole());
+    }
+
+    @Test
+    void shouldBeEmptyForAnonymousRequests() {
+        assertTrue(currentUser.find().isEmpty());
+
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+        assertTrue(currentUser.find().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> currentUser.get());
+        verifyNoInteractions(userRepository);
+    }
+}
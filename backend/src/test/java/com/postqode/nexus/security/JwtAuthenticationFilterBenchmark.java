@@ -0,0 +1,91 @@
+package com.postqode.nexus.security;
+
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.service.CacheInvalidationBus;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the JWT filter hot path: one authenticated request through
+ * {@link JwtAuthenticationFilter}, with and without the verified-token cache.
+ * The user lookups are in-memory, so this measures token handling only.
+ *
+ * Not part of the test suite. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) org.openjdk.jmh.Main JwtAuthenticationFilterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-must-be-at-least-32-bytes-long";
+
+    /** 0 disables the verified-token cache, so every request verifies the signature. */
+    @Param({"0", "10000"})
+    public int verifiedCacheSize;
+
+    /** false loads the principal through UserDetailsService, as before stateless tokens. */
+    @Param({"true", "false"})
+    public boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(SECRET, 3_600_000, verifiedCacheSize);
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByUsername("admin")).thenReturn(Optional.of(
+                User.builder().username("admin").role(UserRole.ADMIN).isEnabled(true).build()));
+        org.springframework.security.core.userdetails.User principal = new org.springframework.security.core.userdetails.User(
+                "admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        UserDetailsService userDetailsService = username -> principal;
+
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService,
+                new UserStatusCache(userRepository, Mockito.mock(CacheInvalidationBus.class), 3_600_000, 100));
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+        token = jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
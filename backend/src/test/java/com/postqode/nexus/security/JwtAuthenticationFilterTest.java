@@ -0,0 +1,164 @@
+package com.postqode.nexus.security;
+
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.service.CacheInvalidationBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JwtAuthenticationFilter.
+ * Focus on stateless authentication: no user lookup per request, but disabled accounts
+ * and role changes still reject tokens.
+ */
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private UserStatusCache userStatusCache;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider("test-secret-key-must-be-at-least-32-bytes-long", 60_000, 100);
+        userStatusCache = new UserStatusCache(userRepository, invalidationBus, 60_000, 100);
+        filter = new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService, userStatusCache);
+        ReflectionTestUtils.setField(filter, "stateless", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String tokenFor(String username, String role) {
+        org.springframework.security.core.userdetails.User principal = new org.springframework.security.core.userdetails.User(
+                username, "", List.of(new SimpleGrantedAuthority(role)));
+        return jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private final UUID userId = UUID.randomUUID();
+
+    private void givenUser(String username, UserRole role, boolean enabled) {
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(
+                User.builder().id(userId).username(username).role(role).isEnabled(enabled).build()));
+    }
+
+    @Test
+    void shouldAuthenticateFromClaimsWithoutLoadingUserDetails() throws Exception {
+        givenUser("admin", UserRole.ADMIN, true);
+        String token = tokenFor("admin", "ROLE_ADMIN");
+
+        for (int i = 0; i < 3; i++) {
+            SecurityContextHolder.clearContext();
+            Authentication authentication = authenticate(token);
+            assertNotNull(authentication);
+            assertEquals("admin", authentication.getName());
+            assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN")));
+            AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+            assertEquals(userId, principal.getId());
+            assertEquals(UserRole.ADMIN, principal.getRole());
+        }
+
+        verifyNoInteractions(userDetailsService);
+        // Status is looked up once and then served from the cache
+        verify(userRepository, times(1)).findByUsername("admin");
+    }
+
+    @Test
+    void shouldRejectTokenOfDisabledUser() throws Exception {
+        givenUser("user", UserRole.USER, false);
+
+        assertNull(authenticate(tokenFor("user", "ROLE_USER")));
+    }
+
+    @Test
+    void shouldRejectTokenAfterRoleChange() throws Exception {
+        givenUser("user", UserRole.USER, true);
+
+        assertNull(authenticate(tokenFor("user", "ROLE_ADMIN")));
+    }
+
+    @Test
+    void shouldRejectTokenOnceEvictedUserIsDisabled() throws Exception {
+        givenUser("user", UserRole.USER, true);
+        String token = tokenFor("user", "ROLE_USER");
+        assertNotNull(authenticate(token));
+        SecurityContextHolder.clearContext();
+
+        givenUser("user", UserRole.USER, false);
+        userStatusCache.evict("user");
+
+        assertNull(authenticate(token));
+        verify(invalidationBus).publish(CacheInvalidationBus.Topic.USER, "user");
+    }
+
+    @Test
+    void shouldIgnoreInvalidToken() throws Exception {
+        assertNull(authenticate("not-a-jwt"));
+
+        verifyNoInteractions(userDetailsService, userRepository);
+    }
+
+    @Test
+    void shouldLoadUserDetailsForTokensWithoutRoles() throws Exception {
+        when(userDetailsService.loadUserByUsername("legacy")).thenReturn(
+                new org.springframework.security.core.userdetails.User("legacy", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        Authentication authentication = authenticate(jwtTokenProvider.generateToken("legacy"));
+
+        assertNotNull(authentication);
+        assertEquals("legacy", authentication.getName());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void shouldLoadUserDetailsWhenStatelessDisabled() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", false);
+        when(userDetailsService.loadUserByUsername("admin")).thenReturn(
+                new org.springframework.security.core.userdetails.User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        assertNotNull(authenticate(tokenFor("admin", "ROLE_ADMIN")));
+
+        verify(userDetailsService).loadUserByUsername("admin");
+        verifyNoInteractions(userRepository);
+    }
+}
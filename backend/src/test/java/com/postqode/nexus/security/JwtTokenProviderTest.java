@@ -0,0 +1,114 @@
+package com.postqode.nexus.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JwtTokenProvider.
+ * Focus on the single-parse verification API and the verified-token cache.
+ */
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-must-be-at-least-32-bytes-long";
+
+    private String adminToken(JwtTokenProvider provider) {
+        User principal = new User("admin", "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        return provider.generateToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void shouldReturnClaimsOfValidToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+
+        Claims claims = provider.getValidatedClaims(adminToken(provider));
+
+        assertNotNull(claims);
+        assertEquals("admin", claims.getSubject());
+        assertEquals("ROLE_ADMIN", claims.get("roles", String.class));
+    }
+
+    @Test
+    void shouldServeRepeatedVerificationFromCache() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+        String token = adminToken(provider);
+
+        Claims first = provider.getValidatedClaims(token);
+        Claims second = provider.getValidatedClaims(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void shouldRejectTamperedAndForeignTokens() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+        String token = adminToken(provider);
+        assertNotNull(provider.getValidatedClaims(token));
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        JwtTokenProvider other = new JwtTokenProvider("another-secret-key-that-is-32-bytes-or-more", 60_000, 100);
+
+        assertNull(provider.getValidatedClaims(tampered));
+        assertNull(provider.getValidatedClaims(adminToken(other)));
+        assertFalse(provider.validateToken("not-a-jwt"));
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, -1_000, 100);
+
+        assertNull(provider.getValidatedClaims(adminToken(provider)));
+    }
+
+    @Test
+    void shouldNotServeCachedClaimsPastExpiration() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+        Claims claims = provider.getValidatedClaims(adminToken(provider));
+        AtomicLong nanos = new AtomicLong();
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, nanos::get);
+        cache.put("hash", claims);
+
+        assertSame(claims, cache.get("hash"));
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertNull(cache.get("hash"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldStayWithinMaximumSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 0);
+        Claims claims = provider.getValidatedClaims(adminToken(provider));
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, claims);
+        }
+
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void accessorsShouldReturnNullForInvalidTokens() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+
+        assertNull(provider.getUsernameFromToken("not-a-token"));
+        assertNull(provider.getRolesFromToken("not-a-token"));
+    }
+
+    @Test
+    void shouldVerifyEveryTimeWhenCacheDisabled() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 0);
+        String token = adminToken(provider);
+
+        assertNotSame(provider.getValidatedClaims(token), provider.getValidatedClaims(token));
+        assertEquals("admin", provider.getUsernameFromToken(token));
+    }
+}
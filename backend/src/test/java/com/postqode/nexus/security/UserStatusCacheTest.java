@@ -0,0 +1,75 @@
+package com.postqode.nexus.security;
+
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.service.CacheInvalidationBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserStatusCache.
+ */
+public class UserStatusCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserStatusCache cache =
+            new UserStatusCache(userRepository, mock(CacheInvalidationBus.class), 60_000, 100);
+
+    private static User user(boolean enabled) {
+        return User.builder().id(UUID.randomUUID()).username("user").role(UserRole.USER).isEnabled(enabled).build();
+    }
+
+    @Test
+    void shouldServeRepeatLookupsFromCache() {
+        when(userRepository.findByUsername("user")).thenReturn(Optional.of(user(true)));
+
+        assertTrue(cache.get("user").enabled());
+        assertTrue(cache.get("user").enabled());
+
+        verify(userRepository, times(1)).findByUsername("user");
+    }
+
+    @Test
+    void shouldCacheMissingUserAsDisabled() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertFalse(cache.get("ghost").enabled());
+        assertFalse(cache.get("ghost").enabled());
+
+        verify(userRepository, times(1)).findByUsername("ghost");
+    }
+
+    @Test
+    void lookupOverlappingAnEvictionShouldNotRecacheTheOldStatus() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        User before = user(true);
+        User after = user(false);
+        when(userRepository.findByUsername("user"))
+                .thenAnswer(invocation -> {
+                    // Read the row before disableUser commits, finish after its eviction
+                    loading.countDown();
+                    assertTrue(evicted.await(5, TimeUnit.SECONDS));
+                    return Optional.of(before);
+                })
+                .thenReturn(Optional.of(after));
+
+        CompletableFuture<UserStatusCache.UserStatus> inFlight = CompletableFuture.supplyAsync(() -> cache.get("user"));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.evict("user");
+        evicted.countDown();
+
+        assertTrue(inFlight.get(5, TimeUnit.SECONDS).enabled(), "the in-flight lookup still answers its own request");
+        assertFalse(cache.get("user").enabled(), "but its stale status was not cached");
+        verify(userRepository, times(2)).findByUsername("user");
+    }
+}
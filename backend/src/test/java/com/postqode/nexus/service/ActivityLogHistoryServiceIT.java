@@ -0,0 +1,156 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.dto.ActivityLogStateResponse;
+import com.postqode.nexus.dto.ProductRequest;
+import com.postqode.nexus.dto.ProductResponse;
+import com.postqode.nexus.model.ActivityLog;
+import com.postqode.nexus.model.ActivityValueFormat;
+import com.postqode.nexus.repository.ActivityLogRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product updates are logged as field diffs with a full snapshot every third entry, and the
+ * full before/after views are rebuilt from them. Runs with synchronous logging so the entries
+ * are written inside the rolled-back test transaction.
+ */
+@SpringBootTest(properties = {"app.activity-log.async=false", "app.activity-log.snapshot-every=3"})
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(username = "admin", roles = "ADMIN")
+public class ActivityLogHistoryServiceIT {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ActivityLogHistoryService activityLogHistoryService;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldStoreDiffsAndReconstructFullViews() {
+        // Random text, so JSONB compression does not hide the size of the snapshots
+        StringBuilder description = new StringBuilder();
+        while (description.length() < 2000) {
+            description.append(UUID.randomUUID()).append(' ');
+        }
+        ProductRequest request = ProductRequest.builder()
+                .sku("DIFF-" + System.nanoTime())
+                .name("Audited product")
+                .description(description.toString())
+                .price(new BigDecimal("19.99"))
+                .quantity(50)
+                .build();
+        ProductResponse product = productService.createProduct(request);
+        for (int quantity = 49; quantity >= 45; quantity--) {
+            request.setQuantity(quantity);
+            productService.updateProduct(product.getId(), request);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ActivityLog> logs = new ArrayList<>(activityLogRepository.findByProductIdOrderByCreatedAtDesc(product.getId()));
+        Collections.reverse(logs);
+        assertThat(logs).extracting(ActivityLog::getValueFormat).containsExactly(
+                ActivityValueFormat.FULL, // create
+                ActivityValueFormat.FULL, // first update seen for the product
+                ActivityValueFormat.DIFF,
+                ActivityValueFormat.DIFF,
+                ActivityValueFormat.FULL, // every third update
+                ActivityValueFormat.DIFF);
+
+        ActivityLog diff = logs.get(3);
+        assertThat(diff.getOldValue()).containsEntry("quantity", 48).doesNotContainKey("description");
+        assertThat(diff.getNewValue()).containsEntry("quantity", 47).doesNotContainKey("description");
+
+        ActivityLogStateResponse state = activityLogHistoryService.getState(diff.getId()).orElseThrow();
+        assertThat(state.isComplete()).isTrue();
+        assertThat(state.getBefore()).containsEntry("quantity", 48)
+                .containsEntry("description", description.toString());
+        assertThat(state.getAfter()).containsEntry("quantity", 47)
+                .containsEntry("name", "Audited product")
+                .containsOnlyKeys(logs.get(1).getNewValue().keySet());
+
+        ActivityLogStateResponse afterSnapshot = activityLogHistoryService.getState(logs.get(5).getId()).orElseThrow();
+        assertThat(afterSnapshot.getBefore()).containsEntry("quantity", 46);
+        assertThat(afterSnapshot.getAfter()).containsEntry("quantity", 45)
+                .containsEntry("description", description.toString());
+
+        Integer fullSize = valueBytes(logs.get(1).getId());
+        Integer diffSize = valueBytes(diff.getId());
+        assertThat(diffSize * 10).isLessThan(fullSize);
+    }
+
+    @Test
+    void shouldMarkViewIncompleteWhenDiffChainHasGap() {
+        ProductRequest request = ProductRequest.builder()
+                .sku("DIFF-" + System.nanoTime())
+                .name("Gap product")
+                .price(BigDecimal.ONE)
+                .quantity(50)
+                .build();
+        ProductResponse product = productService.createProduct(request);
+        for (int quantity = 49; quantity >= 47; quantity--) {
+            request.setQuantity(quantity);
+            productService.updateProduct(product.getId(), request);
+        }
+        entityManager.flush();
+        List<ActivityLog> logs = new ArrayList<>(activityLogRepository.findByProductIdOrderByCreatedAtDesc(product.getId()));
+        Collections.reverse(logs);
+        // create FULL, 50 -> 49 FULL, 49 -> 48 DIFF, 48 -> 47 DIFF
+        assertThat(activityLogHistoryService.getState(logs.get(3).getId()).orElseThrow().isComplete()).isTrue();
+
+        jdbcTemplate.update("DELETE FROM activity_logs WHERE id = ?", logs.get(2).getId());
+        entityManager.clear();
+
+        ActivityLogStateResponse state = activityLogHistoryService.getState(logs.get(3).getId()).orElseThrow();
+        assertThat(state.isComplete()).isFalse();
+        assertThat(state.getAfter()).containsEntry("quantity", 47);
+    }
+
+    @Test
+    void shouldReturnStoredValuesForFullEntries() {
+        ProductResponse product = productService.createProduct(ProductRequest.builder()
+                .sku("DIFF-" + System.nanoTime())
+                .name("Created product")
+                .price(BigDecimal.ONE)
+                .quantity(5)
+                .build());
+        entityManager.flush();
+        ActivityLog created = activityLogRepository.findByProductIdOrderByCreatedAtDesc(product.getId()).get(0);
+
+        ActivityLogStateResponse state = activityLogHistoryService.getState(created.getId()).orElseThrow();
+
+        assertThat(state.getValueFormat()).isEqualTo(ActivityValueFormat.FULL);
+        assertThat(state.getBefore()).isNull();
+        assertThat(state.getAfter()).containsEntry("name", "Created product");
+        assertThat(activityLogHistoryService.getState(UUID.randomUUID())).isEmpty();
+    }
+
+    private Integer valueBytes(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT pg_column_size(old_value) + pg_column_size(new_value) "
+                + "FROM activity_logs WHERE id = ?", Integer.class, id);
+    }
+}
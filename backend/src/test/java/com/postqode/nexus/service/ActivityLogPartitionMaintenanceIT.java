@@ -0,0 +1,121 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.repository.ActivityLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that the activity_logs queries only visit the partitions their
+ * created_at range covers, and that maintenance creates and drops monthly partitions.
+ *
+ * Not @Transactional: DETACH PARTITION CONCURRENTLY cannot run inside a transaction block.
+ * The EXPLAIN tests run in a transaction that is rolled back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ActivityLogPartitionMaintenanceIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        for (String partition : partitionNames()) {
+            if (partition.startsWith("activity_logs_p1990")) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+        }
+    }
+
+    @Test
+    void countActionsTodayShouldOnlyScanCurrentMonth() {
+        YearMonth current = YearMonth.now();
+        String plan = explainRolledBack(current.minusMonths(1),
+                "SELECT COUNT(*) FROM activity_logs WHERE created_at >= CURRENT_DATE");
+
+        assertThat(plan).contains(partitionName(current));
+        assertThat(plan).doesNotContain(partitionName(current.minusMonths(1)));
+    }
+
+    @Test
+    void userActivityStatsShouldOnlyScanTheMonthOfSince() throws Exception {
+        YearMonth previous = YearMonth.now().minusMonths(1);
+        String sql = ActivityLogRepository.class.getMethod("getUserActivityStats", LocalDateTime.class)
+                .getAnnotation(Query.class).value().replace(":since", "?"); // three occurrences
+        Timestamp since = Timestamp.valueOf(previous.atDay(10).atTime(12, 0));
+
+        String plan = explainRolledBack(previous, sql, since, since, since);
+
+        assertThat(plan).contains(partitionName(previous));
+        assertThat(plan).doesNotContain(partitionName(previous.plusMonths(1)));
+    }
+
+    @Test
+    void recentActivityShouldReadPartitionsInOrderWithoutSorting() {
+        String plan = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return explain("SELECT * FROM activity_logs ORDER BY created_at DESC LIMIT 20");
+        });
+
+        assertThat(plan).contains("Index Scan Backward using");
+        assertThat(plan).doesNotContain("Merge Append").doesNotContain("Sort");
+    }
+
+    @Test
+    void shouldCreatePartitionsAheadAndDropExpiredOnes() {
+        new ActivityLogPartitionMaintenance(jdbcTemplate, 2, 1).maintain(LocalDate.of(1990, 3, 10));
+
+        assertThat(partitionNames()).contains("activity_logs_p199003", "activity_logs_p199004",
+                "activity_logs_p199005");
+
+        new ActivityLogPartitionMaintenance(jdbcTemplate, 2, 1).maintain(LocalDate.of(1990, 5, 10));
+
+        List<String> partitions = partitionNames();
+        assertThat(partitions).doesNotContain("activity_logs_p199003");
+        assertThat(partitions).contains("activity_logs_p199004", "activity_logs_p199005",
+                "activity_logs_p199006", "activity_logs_p199007");
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('activity_logs_p199003')", String.class)).isNull();
+        // Partitions newer than the window are left alone
+        assertThat(partitions).contains(partitionName(YearMonth.now()));
+    }
+
+    private String explainRolledBack(YearMonth ensurePartition, String sql, Object... args) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.queryForObject("SELECT create_activity_logs_partition(?)", String.class,
+                    ensurePartition.atDay(1));
+            return explain(sql, args);
+        });
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN (COSTS OFF) " + sql, String.class, args));
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("SELECT c.relname::TEXT FROM pg_inherits i JOIN pg_class c "
+                + "ON c.oid = i.inhrelid WHERE i.inhparent = 'activity_logs'::regclass", String.class);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("activity_logs_p%d%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,245 @@
+package com.postqode.nexus.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postqode.nexus.dto.ProductResponse;
+import com.postqode.nexus.model.ActionType;
+import com.postqode.nexus.model.ActivityLog;
+import com.postqode.nexus.model.ActivityValueFormat;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.repository.ActivityLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ActivityLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ActivityLogWriter writer;
+
+    private final User user = User.builder().id(UUID.randomUUID()).username("admin").build();
+    private final Product product = Product.builder().id(UUID.randomUUID()).sku("SKU-001").build();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    private ActivityLogWriter newWriter(boolean async, int flushSize, long flushIntervalMs) {
+        return new ActivityLogWriter(jdbcTemplate, activityLogRepository, new ObjectMapper(), meterRegistry,
+                eventPublisher, async, 100, flushSize, flushIntervalMs, 100, 5000, true, 3);
+    }
+
+    private ProductResponse snapshot() {
+        return ProductResponse.builder().id(product.getId()).sku("SKU-001").name("Test Product").build();
+    }
+
+    @Test
+    void shouldWriteFullBatchInOneStatement() {
+        writer = newWriter(true, 3, 60_000);
+        writer.start();
+
+        for (int i = 0; i < 3; i++) {
+            writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+        }
+
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(eq(ActivityLogWriter.INSERT_SQL), anyList(), eq(3),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+        assertEquals(3.0, meterRegistry.get("activity.log.written").counter().count());
+        verify(eventPublisher).publishEvent(new ActivityLoggedEvent(3));
+    }
+
+    @Test
+    void shouldFlushPendingEntriesOnStop() {
+        writer = newWriter(true, 100, 60_000);
+        writer.start();
+
+        writer.record(user, product, ActionType.CREATE, null, snapshot());
+        writer.record(user, null, ActionType.DELETE, snapshot(), null);
+        writer.stop();
+
+        verify(jdbcTemplate).batchUpdate(eq(ActivityLogWriter.INSERT_SQL), anyList(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(0, writer.pendingCount());
+    }
+
+    @Test
+    void shouldEnqueueOnlyAfterCommit() {
+        writer = newWriter(true, 100, 60_000);
+        writer.start();
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.record(user, product, ActionType.CREATE, null, snapshot());
+
+        assertEquals(0, writer.pendingCount());
+        verifyNoInteractions(jdbcTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        writer.stop();
+
+        verify(jdbcTemplate).batchUpdate(eq(ActivityLogWriter.INSERT_SQL), anyList(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void shouldRetryRowByRowWhenBatchFails() {
+        writer = newWriter(true, 2, 60_000);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new RuntimeException("batch failed"));
+        writer.start();
+
+        writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+        writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+
+        verify(jdbcTemplate, timeout(2000).times(2)).update(eq(ActivityLogWriter.INSERT_SQL),
+                any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void shouldWriteOnCallerThreadWhenNotRunning() {
+        writer = newWriter(true, 100, 60_000);
+
+        writer.record(user, product, ActionType.CREATE, null, snapshot());
+
+        verify(jdbcTemplate).update(eq(ActivityLogWriter.INSERT_SQL), any(PreparedStatementSetter.class));
+        assertEquals(1.0, meterRegistry.get("activity.log.direct").counter().count());
+    }
+
+    @Test
+    void shouldSaveSynchronouslyWhenAsyncDisabled() {
+        writer = newWriter(false, 100, 60_000);
+        writer.start();
+
+        writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+
+        ArgumentCaptor<ActivityLog> logCaptor = ArgumentCaptor.forClass(ActivityLog.class);
+        verify(activityLogRepository).save(logCaptor.capture());
+        ActivityLog log = logCaptor.getValue();
+
+        assertEquals(ActionType.UPDATE, log.getActionType());
+        assertEquals(product, log.getProduct());
+        assertTrue(log.getOldValue() instanceof Map);
+        assertEquals("Test Product", log.getNewValue().get("name"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldStoreOnlyChangedFieldsBetweenSnapshots() {
+        writer = newWriter(false, 100, 60_000);
+        ProductResponse before = snapshot();
+        ProductResponse after = snapshot();
+        after.setName("Renamed");
+
+        for (int i = 0; i < 4; i++) {
+            writer.record(user, product, ActionType.UPDATE, before, after);
+        }
+
+        ArgumentCaptor<ActivityLog> logCaptor = ArgumentCaptor.forClass(ActivityLog.class);
+        verify(activityLogRepository, times(4)).save(logCaptor.capture());
+        List<ActivityLog> logs = logCaptor.getAllValues();
+        assertEquals(List.of(ActivityValueFormat.FULL, ActivityValueFormat.DIFF, ActivityValueFormat.DIFF,
+                ActivityValueFormat.FULL), logs.stream().map(ActivityLog::getValueFormat).toList());
+
+        ActivityLog diff = logs.get(1);
+        assertEquals(Map.of("name", "Test Product"), diff.getOldValue());
+        assertEquals(Map.of("name", "Renamed"), diff.getNewValue());
+        assertEquals("SKU-001", logs.get(3).getNewValue().get("sku"));
+    }
+
+    @Test
+    void shouldKeepFullValuesForCreateAndDelete() {
+        writer = newWriter(false, 100, 60_000);
+
+        writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+        writer.record(user, product, ActionType.CREATE, null, snapshot());
+        writer.record(user, null, ActionType.DELETE, snapshot(), null);
+
+        ArgumentCaptor<ActivityLog> logCaptor = ArgumentCaptor.forClass(ActivityLog.class);
+        verify(activityLogRepository, times(3)).save(logCaptor.capture());
+        assertTrue(logCaptor.getAllValues().stream()
+                .allMatch(log -> log.getValueFormat() == ActivityValueFormat.FULL));
+    }
+
+    @Test
+    void shouldStoreFirstEntryOfEachMonthInFull() {
+        writer = newWriter(false, 100, 60_000);
+        LocalDateTime january = LocalDateTime.of(2026, 1, 31, 23, 59);
+
+        assertEquals(ActivityValueFormat.FULL, writer.valueFormat(product.getId(), snapshot(), snapshot(), january));
+        assertEquals(ActivityValueFormat.DIFF, writer.valueFormat(product.getId(), snapshot(), snapshot(), january));
+        // A new partition: retention may drop January, so February starts from its own snapshot
+        assertEquals(ActivityValueFormat.FULL,
+                writer.valueFormat(product.getId(), snapshot(), snapshot(), january.plusMinutes(2)));
+    }
+
+    @Test
+    void shouldNotCountRolledBackSnapshot() {
+        writer = newWriter(false, 100, 60_000);
+        TransactionSynchronizationManager.initSynchronization();
+        writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+
+        ArgumentCaptor<ActivityLog> logCaptor = ArgumentCaptor.forClass(ActivityLog.class);
+        verify(activityLogRepository, times(2)).save(logCaptor.capture());
+        assertEquals(ActivityValueFormat.FULL, logCaptor.getAllValues().get(1).getValueFormat());
+    }
+
+    @Test
+    void shouldDecideFormatWhenEntryIsWritten() throws Exception {
+        writer = newWriter(true, 100, 60_000);
+        // Rolled back: never enqueued, so it must not take the product's first snapshot
+        TransactionSynchronizationManager.initSynchronization();
+        writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        writer.record(user, product, ActionType.UPDATE, snapshot(), snapshot());
+
+        ArgumentCaptor<PreparedStatementSetter> setter = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+        verify(jdbcTemplate).update(eq(ActivityLogWriter.INSERT_SQL), setter.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps);
+        verify(ps).setString(6, ActivityValueFormat.FULL.name());
+    }
+}
@@ -0,0 +1,90 @@
+package com.postqode.nexus.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Latency of the available-to-promise read from the product row (reserved_quantity, V17)
+ * against summing the PENDING orders of the product, which is what it would cost without the
+ * column. Creates a buyer, a product and its pending orders, prints the average time per read
+ * of each statement, and deletes the rows again.
+ *
+ * Not part of the test suite. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.postqode.nexus.service.AvailableToPromiseBenchmark [pending-orders] [jdbc-url] [user] [password]
+ * </pre>
+ */
+public class AvailableToPromiseBenchmark {
+
+    private static final int RUNS = 200;
+
+    private static final String SUM_SQL = "SELECT p.quantity - COALESCE((SELECT SUM(o.quantity) FROM orders o "
+            + "WHERE o.product_id = p.id AND o.status = 'PENDING'), 0) FROM products p WHERE p.id = ?";
+
+    // Same statement ProductRepository.findAvailableQuantityById issues
+    private static final String COLUMN_SQL = "SELECT p.quantity - p.reserved_quantity FROM products p WHERE p.id = ?";
+
+    public static void main(String[] args) throws SQLException {
+        int pending = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        String url = args.length > 1 ? args[1] : "jdbc:postgresql://localhost:5432/nexus";
+        Properties properties = new Properties();
+        properties.setProperty("user", args.length > 2 ? args[2] : "nexus");
+        properties.setProperty("password", args.length > 3 ? args[3] : "nexus123");
+
+        UUID userId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        try (Connection connection = DriverManager.getConnection(url, properties)) {
+            try {
+                update(connection, "INSERT INTO users (id, username, password_hash, role) VALUES (?, ?, 'hash', 'USER')",
+                        userId, "atp-bench-" + userId);
+                update(connection, "INSERT INTO products (id, sku, name, price, quantity, reserved_quantity, status) "
+                        + "VALUES (?, ?, 'Available-to-promise benchmark', 1, ?, ?, 'ACTIVE')",
+                        productId, "ATP-BENCH-" + productId, pending * 2, pending);
+                update(connection, "INSERT INTO orders (id, user_id, product_id, quantity, status, created_at, updated_at) "
+                        + "SELECT gen_random_uuid(), ?, ?, 1, 'PENDING'::order_status, LOCALTIMESTAMP, LOCALTIMESTAMP "
+                        + "FROM generate_series(1, ?)", userId, productId, pending);
+
+                double sumMs = averageMs(connection, SUM_SQL, productId, pending);
+                double columnMs = averageMs(connection, COLUMN_SQL, productId, pending);
+                System.out.printf("Available-to-promise with %d pending orders: sum over orders %.3f ms, "
+                        + "reserved_quantity column %.3f ms%n", pending, sumMs, columnMs);
+            } finally {
+                update(connection, "DELETE FROM orders WHERE product_id = ?", productId);
+                update(connection, "DELETE FROM products WHERE id = ?", productId);
+                update(connection, "DELETE FROM users WHERE id = ?", userId);
+            }
+        }
+    }
+
+    private static double averageMs(Connection connection, String sql, UUID productId, int expected) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, productId);
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                try (ResultSet available = statement.executeQuery()) {
+                    available.next();
+                    if (available.getInt(1) != expected) {
+                        throw new IllegalStateException("Expected " + expected + " available, got " + available.getInt(1));
+                    }
+                }
+            }
+            return (System.nanoTime() - startedAt) / 1_000_000.0 / RUNS;
+        }
+    }
+
+    private static void update(Connection connection, String sql, Object... args) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+}
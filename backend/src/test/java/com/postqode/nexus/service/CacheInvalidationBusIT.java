@@ -0,0 +1,182 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.NexusApplication;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.UserStatusCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts sharing one database, as two nodes behind a load balancer would.
+ * Uses a throwaway Testcontainers Postgres when Docker is available and the configured
+ * test database otherwise.
+ */
+public class CacheInvalidationBusIT {
+
+    private static final long AWAIT_MS = 10_000;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static JdbcTemplate jdbcTemplate;
+
+    private String sku;
+    private String username;
+    private UUID productId;
+
+    @BeforeAll
+    static void startNodes() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--app.cache-bus.poll-interval-ms=100",
+                "--app.cache-bus.reconnect-delay-ms=200"));
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+            args.add("--spring.datasource.url=" + postgres.getJdbcUrl());
+            args.add("--spring.datasource.username=" + postgres.getUsername());
+            args.add("--spring.datasource.password=" + postgres.getPassword());
+        }
+        nodeA = startNode(args);
+        nodeB = startNode(args);
+        jdbcTemplate = nodeA.getBean(JdbcTemplate.class);
+    }
+
+    private static ConfigurableApplicationContext startNode(List<String> args) {
+        return new SpringApplicationBuilder(NexusApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        sku = "IT-BUS-" + System.nanoTime();
+        productId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO products (id, sku, name, price, quantity, status) VALUES (?, ?, 'Before', 1, 1, 'ACTIVE')",
+                productId, sku);
+        username = "bus-" + System.nanoTime();
+        nodeA.getBean(UserRepository.class).save(User.builder()
+                .username(username)
+                .password("hash")
+                .role(UserRole.USER)
+                .isEnabled(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM products WHERE sku = ?", sku);
+        jdbcTemplate.update("DELETE FROM users WHERE username = ?", username);
+    }
+
+    private String productNameOn(ConfigurableApplicationContext node) {
+        return node.getBean(ProductService.class).getProduct(productId).getName();
+    }
+
+    private void renameProductWithoutInvalidation(String name) {
+        jdbcTemplate.update("UPDATE products SET name = ? WHERE id = ?", name, productId);
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + AWAIT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static double flushes(ConfigurableApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("cache.invalidation.flushes").counter().count();
+    }
+
+    @Test
+    void shouldEvictProductOnOtherNode() throws Exception {
+        assertThat(productNameOn(nodeA)).isEqualTo("Before");
+        renameProductWithoutInvalidation("After");
+        assertThat(productNameOn(nodeA)).as("served from node A's cache").isEqualTo("Before");
+
+        nodeB.getBean(ProductCache.class).evict(productId);
+
+        assertThat(await(() -> "After".equals(productNameOn(nodeA)))).isTrue();
+    }
+
+    @Test
+    void shouldEvictUserStatusOnOtherNode() throws Exception {
+        UserStatusCache statusOnA = nodeA.getBean(UserStatusCache.class);
+        assertThat(statusOnA.get(username).enabled()).isTrue();
+        jdbcTemplate.update("UPDATE users SET is_enabled = false WHERE username = ?", username);
+
+        nodeB.getBean(UserStatusCache.class).evict(username);
+
+        assertThat(await(() -> !statusOnA.get(username).enabled())).isTrue();
+    }
+
+    @Test
+    void shouldFlushAfterListenerReconnects() throws Exception {
+        assertThat(productNameOn(nodeA)).isEqualTo("Before");
+        double flushesBefore = flushes(nodeA);
+        // A change whose notification node A never gets, because its listener is down
+        renameProductWithoutInvalidation("Missed");
+
+        String listener = "nexus-cache-bus-" + nodeA.getBean(CacheInvalidationBus.class).getNodeId();
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                Boolean.class, listener)).containsExactly(true);
+
+        assertThat(await(() -> flushes(nodeA) > flushesBefore)).isTrue();
+        assertThat(productNameOn(nodeA)).isEqualTo("Missed");
+        assertThat(await(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE application_name = ?", Integer.class, listener) == 1))
+                .as("listener is back").isTrue();
+    }
+
+    @Test
+    void shouldFlushWhenSequenceFromANodeSkips() throws Exception {
+        assertThat(productNameOn(nodeA)).isEqualTo("Before");
+        renameProductWithoutInvalidation("Skipped");
+        String node = UUID.randomUUID().toString();
+
+        notifyRaw("{\"node\":\"" + node + "\",\"seq\":1,\"topic\":\"USER\",\"key\":\"nobody\"}");
+        notifyRaw("{\"node\":\"" + node + "\",\"seq\":3,\"topic\":\"USER\",\"key\":\"nobody\"}");
+
+        assertThat(await(() -> "Skipped".equals(productNameOn(nodeA)))).isTrue();
+    }
+
+    private static void notifyRaw(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify('nexus_cache_invalidation', ?)", payload);
+    }
+}
@@ -27,6 +27,9 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductCache productCache;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -78,6 +81,7 @@ public class CategoryServiceTest {
 
         assertEquals("Updated Name", result.getName());
         assertEquals("Updated Description", result.getDescription());
+        verify(productCache).evictAll();
     }
 
     @Test
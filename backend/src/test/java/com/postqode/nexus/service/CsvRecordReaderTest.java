@@ -0,0 +1,35 @@
+package com.postqode.nexus.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CsvRecordReader.
+ */
+public class CsvRecordReaderTest {
+
+    @Test
+    void shouldReadQuotedFieldsAndLineEndings() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,\"b, c\",\"say \"\"hi\"\"\"\r\n\r\n,\"multi\nline\",\n last"));
+
+        assertArrayEquals(new String[]{"a", "b, c", "say \"hi\""}, reader.next());
+        assertArrayEquals(new String[]{"", "multi\nline", ""}, reader.next());
+        assertArrayEquals(new String[]{" last"}, reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void shouldReadFieldsSpanningBufferRefills() throws IOException {
+        String longValue = "x".repeat(100_000);
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"" + longValue + "\",1\n2,3\n"));
+
+        assertArrayEquals(new String[]{longValue, "1"}, reader.next());
+        assertArrayEquals(new String[]{"2", "3"}, reader.next());
+        assertNull(reader.next());
+    }
+}
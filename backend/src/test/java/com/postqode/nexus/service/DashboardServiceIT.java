@@ -0,0 +1,165 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.dto.graphql.DashboardMetrics;
+import com.postqode.nexus.dto.graphql.UserActivity;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.ProductRepository;
+import com.postqode.nexus.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the trigger-maintained dashboard counters and activity rollup follow writes
+ * and that reconciliation repairs drift.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class DashboardServiceIT {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void shouldTrackProductWritesIncrementally() {
+        dashboardService.reconcileCounters();
+        DashboardMetrics before = dashboardService.getDashboardMetrics();
+
+        Product product = productRepository.saveAndFlush(Product.builder()
+                .sku("DASH-" + System.nanoTime())
+                .name("Counter product")
+                .price(BigDecimal.TEN)
+                .quantity(5)
+                .status(ProductStatus.ACTIVE)
+                .build());
+
+        DashboardMetrics created = dashboardService.getDashboardMetrics();
+        assertThat(created.getTotalProducts()).isEqualTo(before.getTotalProducts() + 1);
+        assertThat(created.getActiveProducts()).isEqualTo(before.getActiveProducts() + 1);
+        assertThat(created.getProductsAddedToday()).isEqualTo(before.getProductsAddedToday() + 1);
+
+        product.setStatus(ProductStatus.LOW_STOCK);
+        productRepository.saveAndFlush(product);
+
+        DashboardMetrics moved = dashboardService.getDashboardMetrics();
+        assertThat(moved.getTotalProducts()).isEqualTo(before.getTotalProducts() + 1);
+        assertThat(moved.getActiveProducts()).isEqualTo(before.getActiveProducts());
+        assertThat(moved.getLowStockProducts()).isEqualTo(before.getLowStockProducts() + 1);
+
+        productRepository.delete(product);
+        productRepository.flush();
+
+        DashboardMetrics deleted = dashboardService.getDashboardMetrics();
+        assertThat(deleted.getTotalProducts()).isEqualTo(before.getTotalProducts());
+        assertThat(deleted.getLowStockProducts()).isEqualTo(before.getLowStockProducts());
+        assertThat(deleted.getProductsAddedToday()).isEqualTo(before.getProductsAddedToday());
+
+        // Trigger updates leave nothing for reconciliation to fix
+        assertThat(dashboardService.reconcileCounters()).isZero();
+    }
+
+    @Test
+    void shouldRepairDriftOnReconcile() {
+        dashboardService.reconcileCounters();
+        long actualTotal = productRepository.count();
+
+        entityManager.createNativeQuery(
+                "UPDATE dashboard_counters SET value = value + 42 WHERE name = 'products_total'")
+                .executeUpdate();
+        assertThat(dashboardService.getDashboardMetrics().getTotalProducts()).isEqualTo(actualTotal + 42);
+
+        assertThat(dashboardService.reconcileCounters()).isEqualTo(1);
+        assertThat(dashboardService.getDashboardMetrics().getTotalProducts()).isEqualTo(actualTotal);
+    }
+
+    /**
+     * An open product write holds ROW EXCLUSIVE on products; the old SHARE-locking reconcile
+     * would wait for it. Not transactional: the writer needs its own uncommitted connection.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldReconcileWithoutWaitingForOpenWriters() throws Exception {
+        dashboardService.reconcileCounters();
+        try (Connection writer = dataSource.getConnection()) {
+            writer.setAutoCommit(false);
+            try (Statement statement = writer.createStatement()) {
+                statement.executeUpdate("INSERT INTO products (sku, name, price, quantity, status) "
+                        + "VALUES ('DASH-OPEN-" + System.nanoTime() + "', 'Open write', 1, 1, 'ACTIVE')");
+            }
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                // The uncommitted row and its counter increment are both outside the snapshot
+                assertThat(executor.submit(dashboardService::reconcileCounters).get(10, TimeUnit.SECONDS))
+                        .isZero();
+            } finally {
+                executor.shutdownNow();
+                writer.rollback();
+            }
+        }
+    }
+
+    @Test
+    void shouldAggregateActivityByUserFromRollup() {
+        User user = userRepository.save(User.builder()
+                .username("dash-activity-" + System.nanoTime())
+                .password("hash")
+                .role(UserRole.USER)
+                .build());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        // Two today, one just inside a 2-day window (partial first day), one outside it
+        insertActivity(user, now);
+        insertActivity(user, now.minusMinutes(5));
+        insertActivity(user, now.minusDays(2).plusMinutes(5));
+        insertActivity(user, now.minusDays(2).minusMinutes(5));
+        dashboardService.onActivityLogged(new ActivityLoggedEvent(4));
+
+        UserActivity activity = dashboardService.getActivityByUser(2).stream()
+                .filter(a -> a.getUsername().equals(user.getUsername()))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(activity.getActionCount()).isEqualTo(3);
+        assertThat(activity.getLastAction()).isEqualTo(now.toString());
+    }
+
+    private void insertActivity(User user, LocalDateTime createdAt) {
+        entityManager.createNativeQuery(
+                "INSERT INTO activity_logs (user_id, action_type, created_at) VALUES (:userId, 'UPDATE', :createdAt)")
+                .setParameter("userId", user.getId())
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+    }
+}
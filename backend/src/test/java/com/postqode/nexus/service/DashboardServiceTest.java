@@ -2,27 +2,30 @@ package com.postqode.nexus.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.postqode.nexus.dto.graphql.DashboardMetrics;
+import com.postqode.nexus.dto.graphql.StatusCount;
 import com.postqode.nexus.dto.graphql.UserActivity;
 import com.postqode.nexus.model.ProductStatus;
-import com.postqode.nexus.model.User;
 import com.postqode.nexus.repository.ActivityLogRepository;
-import com.postqode.nexus.repository.ProductRepository;
-import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.repository.DashboardCounterRepository;
+import com.postqode.nexus.repository.UserActivityStats;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,14 +33,11 @@ import static org.mockito.Mockito.when;
 public class DashboardServiceTest {
 
     @Mock
-    private ProductRepository productRepository;
+    private DashboardCounterRepository dashboardCounterRepository;
 
     @Mock
     private ActivityLogRepository activityLogRepository;
 
-    @Mock
-    private UserRepository userRepository;
-
     @Mock
     private ObjectMapper objectMapper;
 
@@ -46,12 +46,13 @@ public class DashboardServiceTest {
 
     @Test
     public void shouldGetDashboardMetrics() {
-        when(productRepository.count()).thenReturn(100L);
-        when(productRepository.countByStatus(ProductStatus.ACTIVE)).thenReturn(80L);
-        when(productRepository.countByStatus(ProductStatus.LOW_STOCK)).thenReturn(15L);
-        when(productRepository.countByStatus(ProductStatus.OUT_OF_STOCK)).thenReturn(5L);
-        when(productRepository.countProductsAddedToday()).thenReturn(10L);
-        when(activityLogRepository.countActionsToday()).thenReturn(50L);
+        when(dashboardCounterRepository.findCurrentValues()).thenReturn(List.of(
+                new Object[] { "products_total", 100L },
+                new Object[] { "status:ACTIVE", 80L },
+                new Object[] { "status:LOW_STOCK", 15L },
+                new Object[] { "status:OUT_OF_STOCK", 5L },
+                new Object[] { "products_added", 10L },
+                new Object[] { "actions", 50L }));
 
         DashboardMetrics metrics = dashboardService.getDashboardMetrics();
 
@@ -65,18 +66,24 @@ public class DashboardServiceTest {
     }
 
     @Test
-    public void shouldGetActivityByUser() {
-        UUID userId = UUID.randomUUID();
-        LocalDateTime lastAction = LocalDateTime.now();
-        Object[] row = { userId, 10L, lastAction };
+    public void shouldReportMissingCountersAsZero() {
+        when(dashboardCounterRepository.findCurrentValues()).thenReturn(List.<Object[]>of(
+                new Object[] { "status:ACTIVE", 3L }));
 
-        when(activityLogRepository.getUserActivityStats(any())).thenReturn(Collections.singletonList(row));
+        List<StatusCount> counts = dashboardService.getProductsByStatus();
 
-        User user = new User();
-        user.setId(userId);
-        user.setUsername("testuser");
+        assertEquals(ProductStatus.values().length, counts.size());
+        for (StatusCount count : counts) {
+            assertEquals(count.getStatus() == ProductStatus.ACTIVE ? 3 : 0, count.getCount());
+        }
+        assertEquals(0, dashboardService.getProductsAddedToday());
+    }
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+    @Test
+    public void shouldGetActivityByUser() {
+        LocalDateTime lastAction = LocalDateTime.now();
+        when(activityLogRepository.getUserActivityStats(any()))
+                .thenReturn(Collections.singletonList(stats("testuser", 10L, lastAction)));
 
         List<UserActivity> activities = dashboardService.getActivityByUser(7);
 
@@ -86,4 +93,46 @@ public class DashboardServiceTest {
         assertEquals(10, activities.get(0).getActionCount());
         assertEquals(lastAction.toString(), activities.get(0).getLastAction());
     }
+
+    @Test
+    public void shouldCacheActivityByUserUntilNewActivity() {
+        ReflectionTestUtils.setField(dashboardService, "activityCacheTtlMs", 60_000L);
+        when(activityLogRepository.getUserActivityStats(any()))
+                .thenReturn(Collections.singletonList(stats("testuser", 10L, LocalDateTime.now())));
+
+        dashboardService.getActivityByUser(30);
+        dashboardService.getActivityByUser(30);
+        verify(activityLogRepository, times(1)).getUserActivityStats(any());
+
+        dashboardService.onActivityLogged(new ActivityLoggedEvent(1));
+        dashboardService.getActivityByUser(30);
+        verify(activityLogRepository, times(2)).getUserActivityStats(any());
+    }
+
+    @Test
+    public void shouldRejectActivityWindowOutsideRange() {
+        assertThrows(IllegalArgumentException.class, () -> dashboardService.getActivityByUser(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> dashboardService.getActivityByUser(DashboardService.MAX_ACTIVITY_DAYS + 1));
+        verifyNoInteractions(activityLogRepository);
+    }
+
+    private UserActivityStats stats(String username, Long count, LocalDateTime lastAction) {
+        return new UserActivityStats() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public Long getActionCount() {
+                return count;
+            }
+
+            @Override
+            public LocalDateTime getLastAction() {
+                return lastAction;
+            }
+        };
+    }
 }
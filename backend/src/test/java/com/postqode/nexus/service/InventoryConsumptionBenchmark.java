@@ -0,0 +1,116 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.NexusApplication;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserInventory;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserInventoryRepository;
+import com.postqode.nexus.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of consuming inventory through the conditional UPDATE against the previous
+ * read-check-write path (load the entity, check in Java, save the computed quantity), one
+ * caller at a time and on 32 threads. Prints the time per path and how many decrements each
+ * lost; the read-check-write path is expected to lose some under contention.
+ *
+ * Starts the application without the web tier against the configured database and removes
+ * its rows afterwards. Not part of the test suite. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.postqode.nexus.service.InventoryConsumptionBenchmark [consumptions]
+ * </pre>
+ */
+public class InventoryConsumptionBenchmark {
+
+    private static final int THREADS = 32;
+
+    public static void main(String[] args) throws Exception {
+        int consumptions = args.length > 0 ? Integer.parseInt(args[0]) : 1200;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(NexusApplication.class)
+                .web(WebApplicationType.NONE)
+                .run()) {
+            UserInventoryService userInventoryService = context.getBean(UserInventoryService.class);
+            UserInventoryRepository userInventoryRepository = context.getBean(UserInventoryRepository.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            User user = context.getBean(UserRepository.class).save(User.builder()
+                    .username("consume-bench-" + System.nanoTime())
+                    .password("hash")
+                    .role(UserRole.USER)
+                    .build());
+            int units = consumptions * 4;
+            try {
+                UUID legacyItem = userInventoryService.addManualItem(user.getId(), "Legacy path", units, null).getId();
+                Callable<?> legacy = () -> transactionTemplate.execute(status -> {
+                    UserInventory item = userInventoryRepository.findById(legacyItem).orElseThrow();
+                    if (item.getUser().getId().equals(user.getId()) && item.getQuantity() >= 1) {
+                        item.setQuantity(item.getQuantity() - 1);
+                        userInventoryRepository.save(item);
+                    }
+                    return null;
+                });
+                report("read-check-write", consumptions, race(1, consumptions, legacy),
+                        race(THREADS, consumptions, legacy), quantityOf(jdbcTemplate, legacyItem) - (units - 2 * consumptions));
+
+                UUID atomicItem = userInventoryService.addManualItem(user.getId(), "Atomic path", units, null).getId();
+                Callable<?> atomic = () -> userInventoryService.consumeInventoryItem(atomicItem, user.getId(), 1);
+                report("conditional UPDATE", consumptions, race(1, consumptions, atomic),
+                        race(THREADS, consumptions, atomic), quantityOf(jdbcTemplate, atomicItem) - (units - 2 * consumptions));
+            } finally {
+                jdbcTemplate.update("DELETE FROM user_inventory WHERE user_id = ?", user.getId());
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+            }
+        }
+    }
+
+    private static void report(String path, int consumptions, long sequentialMs, long contendedMs, int lost) {
+        System.out.printf("%s, %d consumptions: %.2f ms each alone, %d ms on %d threads (%d lost)%n",
+                path, consumptions, sequentialMs / (double) consumptions, contendedMs, THREADS, lost);
+    }
+
+    private static int quantityOf(JdbcTemplate jdbcTemplate, UUID itemId) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM user_inventory WHERE id = ?", Integer.class, itemId);
+    }
+
+    /**
+     * Submits the calls on the given number of threads, releases them together and returns
+     * the wall time.
+     */
+    private static long race(int threads, int calls, Callable<?> consumption) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return consumption.call();
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        executor.shutdown();
+        return elapsedMs;
+    }
+}
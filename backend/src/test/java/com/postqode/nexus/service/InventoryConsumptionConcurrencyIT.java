@@ -0,0 +1,140 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Consumes one inventory item from many threads at once and checks no decrement is lost.
+ * InventoryConsumptionBenchmark times the same load against the previous read-check-write path.
+ * Not transactional: every consumption must commit on its own connection for the race to be real.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class InventoryConsumptionConcurrencyIT {
+
+    private static final int UNITS = 1000;
+    private static final int ATTEMPTS = 1200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private UserInventoryService userInventoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        user = userRepository.save(User.builder()
+                .username("consume-" + suffix)
+                .password("hash")
+                .role(UserRole.USER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_inventory WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void shouldNotLoseDecrementsUnderConcurrentConsumption() throws Exception {
+        UUID itemId = userInventoryService.addManualItem(user.getId(), "Contended item", UNITS, null).getId();
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+
+        race(() -> {
+            try {
+                userInventoryService.consumeInventoryItem(itemId, user.getId(), 1);
+                consumed.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                // Once the last unit is taken the item is gone
+                if (e.getMessage().startsWith("Cannot consume more")
+                        || e.getMessage().startsWith("Inventory item not found")) {
+                    insufficient.incrementAndGet();
+                } else {
+                    unexpected.add(e);
+                }
+            } catch (RuntimeException e) {
+                unexpected.add(e);
+            }
+            return null;
+        });
+
+        assertThat(unexpected).isEmpty();
+        assertThat(consumed.get()).isEqualTo(UNITS);
+        assertThat(insufficient.get()).isEqualTo(ATTEMPTS - UNITS);
+        // The consumption that reached zero removed the item
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_inventory WHERE id = ?",
+                Integer.class, itemId)).isZero();
+    }
+
+    @Test
+    void shouldRejectOtherUsersAndOverConsumption() {
+        UUID itemId = userInventoryService.addManualItem(user.getId(), "Small item", 2, null).getId();
+
+        assertThatThrownBy(() -> userInventoryService.consumeInventoryItem(itemId, UUID.randomUUID(), 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("You can only consume your own inventory items");
+        assertThatThrownBy(() -> userInventoryService.consumeInventoryItem(itemId, user.getId(), 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot consume more than available quantity (2)");
+        jdbcTemplate.update("UPDATE user_inventory SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(1), itemId);
+        assertThat(userInventoryService.consumeInventoryItem(itemId, user.getId(), 1).getQuantity()).isEqualTo(1);
+        // The native UPDATE bypasses @PreUpdate, so it stamps updated_at itself
+        assertThat(jdbcTemplate.queryForObject("SELECT updated_at FROM user_inventory WHERE id = ?",
+                LocalDateTime.class, itemId)).isAfter(LocalDateTime.now().minusHours(1));
+    }
+
+    /**
+     * Submits ATTEMPTS calls on THREADS threads, releases them together and waits for all of them.
+     */
+    private void race(Callable<?> consumption) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return consumption.call();
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,185 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.model.Order;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.OrderRepository;
+import com.postqode.nexus.repository.ProductRepository;
+import com.postqode.nexus.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires concurrent approvals at a single product and checks stock is never oversold, and that
+ * one buyer's concurrent approvals merge into a single PURCHASED inventory row.
+ * Not transactional: every approval must commit on its own connection for the race to be real.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderApprovalConcurrencyIT {
+
+    private static final int STOCK = 500;
+    private static final int ORDERS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+    private final List<UUID> orderIds = new ArrayList<>();
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = String.valueOf(System.nanoTime());
+        product = productRepository.save(Product.builder()
+                .sku("RACE-" + suffix)
+                .name("Contended product")
+                .price(BigDecimal.TEN)
+                .quantity(STOCK)
+                .status(ProductStatus.ACTIVE)
+                .build());
+
+        // One buyer per order so the race is purely on product stock
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            users.add(User.builder()
+                    .username("race-" + suffix + "-" + i)
+                    .password("hash")
+                    .role(UserRole.USER)
+                    .build());
+        }
+        List<Order> orders = new ArrayList<>();
+        for (User user : userRepository.saveAll(users)) {
+            orders.add(new Order(user, product, 1, Order.OrderStatus.PENDING));
+        }
+        orderRepository.saveAll(orders).forEach(order -> orderIds.add(order.getId()));
+        Collections.shuffle(orderIds);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_inventory WHERE product_id = ?", product.getId());
+        jdbcTemplate.update("DELETE FROM orders WHERE product_id = ?", product.getId());
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", "race-" + suffix + "-%");
+    }
+
+    @Test
+    void shouldNeverOversellUnderConcurrentApprovals() throws Exception {
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (UUID orderId : orderIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.approveOrder(orderId);
+                    approved.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    if (e.getMessage().startsWith("Insufficient stock")) {
+                        insufficient.incrementAndGet();
+                    } else {
+                        unexpected.add(e);
+                    }
+                } catch (RuntimeException e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(approved.get()).isEqualTo(STOCK);
+        assertThat(insufficient.get()).isEqualTo(ORDERS - STOCK);
+        assertThat(productRepository.findQuantityById(product.getId())).contains(0);
+
+        Integer approvedRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE product_id = ? AND status = 'APPROVED'",
+                Integer.class, product.getId());
+        Integer inventoryUnits = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM user_inventory WHERE product_id = ?",
+                Integer.class, product.getId());
+        assertThat(approvedRows).isEqualTo(STOCK);
+        // Failed approvals rolled back their inventory rows together with the order claim
+        assertThat(inventoryUnits).isEqualTo(STOCK);
+    }
+
+    @Test
+    void shouldMergeConcurrentPurchasesOfOneBuyerIntoOneRow() throws Exception {
+        User buyer = userRepository.save(User.builder()
+                .username("race-" + suffix + "-buyer")
+                .password("hash")
+                .role(UserRole.USER)
+                .build());
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < THREADS * 2; i++) {
+            orders.add(new Order(buyer, product, 2, Order.OrderStatus.PENDING));
+        }
+        List<UUID> buyerOrderIds = orderRepository.saveAll(orders).stream().map(Order::getId).toList();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (UUID orderId : buyerOrderIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                orderService.approveOrder(orderId);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Integer> rows = jdbcTemplate.queryForList(
+                "SELECT quantity FROM user_inventory WHERE user_id = ? AND product_id = ? AND source = 'PURCHASED'",
+                Integer.class, buyer.getId(), product.getId());
+        assertThat(rows).containsExactly(buyerOrderIds.size() * 2);
+    }
+}
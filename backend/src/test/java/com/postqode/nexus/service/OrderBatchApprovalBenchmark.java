@@ -0,0 +1,101 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.NexusApplication;
+import com.postqode.nexus.dto.OrderBatchResponse;
+import com.postqode.nexus.model.Order;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.OrderRepository;
+import com.postqode.nexus.repository.ProductRepository;
+import com.postqode.nexus.repository.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of approving PENDING orders one at a time through OrderService against one
+ * OrderBatchService batch of the same size, for two buyers over two products. Prints both
+ * times and the speed-up.
+ *
+ * Starts the application without the web tier against the configured database and removes
+ * its rows afterwards. Not part of the test suite. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) \
+ *     com.postqode.nexus.service.OrderBatchApprovalBenchmark [orders]
+ * </pre>
+ * {@code orders} must not exceed {@code app.order-batch.max-size}.
+ */
+public class OrderBatchApprovalBenchmark {
+
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(NexusApplication.class)
+                .web(WebApplicationType.NONE)
+                .run()) {
+            OrderService orderService = context.getBean(OrderService.class);
+            OrderBatchService orderBatchService = context.getBean(OrderBatchService.class);
+            OrderRepository orderRepository = context.getBean(OrderRepository.class);
+            ProductRepository productRepository = context.getBean(ProductRepository.class);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            String suffix = String.valueOf(System.nanoTime());
+            List<User> buyers = new ArrayList<>();
+            List<Product> catalog = new ArrayList<>();
+            try {
+                for (int i = 0; i < 2; i++) {
+                    buyers.add(userRepository.save(User.builder()
+                            .username("batch-bench-" + suffix + "-" + i)
+                            .password("hash")
+                            .role(UserRole.USER)
+                            .build()));
+                    catalog.add(productRepository.save(Product.builder()
+                            .sku("BATCH-BENCH-" + suffix + "-" + i)
+                            .name("Batch benchmark " + i)
+                            .price(BigDecimal.ONE)
+                            .quantity(orders * 2)
+                            .status(ProductStatus.ACTIVE)
+                            .build()));
+                }
+                List<UUID> sequential = new ArrayList<>();
+                List<UUID> batched = new ArrayList<>();
+                for (int i = 0; i < orders; i++) {
+                    User buyer = buyers.get(i % 2);
+                    Product product = catalog.get(i % 2);
+                    sequential.add(orderRepository.save(new Order(buyer, product, 1, Order.OrderStatus.PENDING)).getId());
+                    batched.add(orderRepository.save(new Order(buyer, product, 1, Order.OrderStatus.PENDING)).getId());
+                }
+
+                long startedAt = System.nanoTime();
+                sequential.forEach(orderService::approveOrder);
+                long sequentialMs = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), 1);
+
+                startedAt = System.nanoTime();
+                OrderBatchResponse response = orderBatchService.approveOrders(batched);
+                long batchMs = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), 1);
+
+                System.out.printf("Order approval of %d orders: one at a time %d ms (%.0f/s), batch %d ms (%.0f/s, "
+                                + "%d approved), %.1fx%n",
+                        orders, sequentialMs, orders * 1000.0 / sequentialMs, batchMs, orders * 1000.0 / batchMs,
+                        response.getSucceeded(), sequentialMs / (double) batchMs);
+            } finally {
+                for (Product product : catalog) {
+                    jdbcTemplate.update("DELETE FROM user_inventory WHERE product_id = ?", product.getId());
+                    jdbcTemplate.update("DELETE FROM orders WHERE product_id = ?", product.getId());
+                    jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+                }
+                jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", "batch-bench-" + suffix + "-%");
+            }
+        }
+    }
+}
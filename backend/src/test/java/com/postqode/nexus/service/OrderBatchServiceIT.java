@@ -0,0 +1,215 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.dto.OrderBatchResponse;
+import com.postqode.nexus.dto.OrderBatchResponse.Result;
+import com.postqode.nexus.model.Order;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.OrderRepository;
+import com.postqode.nexus.repository.ProductRepository;
+import com.postqode.nexus.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Batch approval and rejection: per-order outcomes, stock and inventory effects, and no deadlocks
+ * against concurrent single approvals. OrderBatchApprovalBenchmark compares the throughput with
+ * approving one order at a time.
+ * Not transactional: the batches and single approvals must commit on their own connections.
+ */
+@SpringBootTest(properties = "app.order-batch.max-size=300")
+@ActiveProfiles("test")
+public class OrderBatchServiceIT {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+    private User buyer;
+    private User otherBuyer;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        suffix = String.valueOf(System.nanoTime());
+        buyer = saveUser("a");
+        otherBuyer = saveUser("b");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Product product : products) {
+            jdbcTemplate.update("DELETE FROM user_inventory WHERE product_id = ?", product.getId());
+            jdbcTemplate.update("DELETE FROM orders WHERE product_id = ?", product.getId());
+            jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+        }
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE ?", "batch-" + suffix + "-%");
+    }
+
+    @Test
+    void shouldApproveInRequestOrderAndReportEveryOrder() {
+        Product plenty = saveProduct("PLENTY", 100);
+        Product scarce = saveProduct("SCARCE", 5);
+        UUID first = saveOrder(buyer, plenty, 3);
+        UUID second = saveOrder(buyer, plenty, 4);
+        UUID scarceFirst = saveOrder(otherBuyer, scarce, 4);
+        UUID scarceSecond = saveOrder(buyer, scarce, 2);
+        UUID rejected = saveOrder(buyer, plenty, 1);
+        orderService.rejectOrder(rejected);
+        UUID unknown = UUID.randomUUID();
+
+        OrderBatchResponse response = orderBatchService.approveOrders(
+                List.of(first, scarceFirst, second, scarceSecond, rejected, unknown, first));
+
+        assertThat(response.getRequested()).isEqualTo(6);
+        assertThat(response.getSucceeded()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(Result::getOrderId)
+                .containsExactly(first, scarceFirst, second, scarceSecond, rejected, unknown);
+        assertThat(response.getResults()).extracting(Result::getStatus).containsExactly(
+                Order.OrderStatus.APPROVED, Order.OrderStatus.APPROVED, Order.OrderStatus.APPROVED,
+                Order.OrderStatus.PENDING, Order.OrderStatus.REJECTED, null);
+        assertThat(response.getResults()).extracting(Result::getMessage).containsExactly(
+                null, null, null,
+                "Insufficient stock. Available: 1, Requested: 2",
+                "Only PENDING orders can be approved",
+                "Order not found with id: " + unknown);
+
+        assertThat(productRepository.findQuantityById(plenty.getId())).contains(93);
+        assertThat(productRepository.findQuantityById(scarce.getId())).contains(1);
+        assertThat(orderRepository.findById(scarceSecond).orElseThrow().getStatus()).isEqualTo(Order.OrderStatus.PENDING);
+        // Both orders of the same buyer and product merged into one row
+        assertThat(jdbcTemplate.queryForList("SELECT quantity FROM user_inventory WHERE user_id = ? AND product_id = ?",
+                Integer.class, buyer.getId(), plenty.getId())).containsExactly(7);
+        assertThat(jdbcTemplate.queryForList("SELECT quantity FROM user_inventory WHERE user_id = ? AND product_id = ?",
+                Integer.class, buyer.getId(), scarce.getId())).isEmpty();
+    }
+
+    @Test
+    void shouldRejectPendingOrdersOnly() {
+        Product product = saveProduct("REJECT", 10);
+        UUID pending = saveOrder(buyer, product, 1);
+        UUID approved = saveOrder(buyer, product, 1);
+        orderService.approveOrder(approved);
+
+        OrderBatchResponse response = orderBatchService.rejectOrders(List.of(pending, approved));
+
+        assertThat(response.getResults()).extracting(Result::isSuccess).containsExactly(true, false);
+        assertThat(response.getResults().get(1).getStatus()).isEqualTo(Order.OrderStatus.APPROVED);
+        assertThat(orderRepository.findById(pending).orElseThrow().getStatus()).isEqualTo(Order.OrderStatus.REJECTED);
+        assertThat(productRepository.findQuantityById(product.getId())).contains(9);
+
+        assertThatThrownBy(() -> orderBatchService.rejectOrders(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        List<UUID> tooMany = new ArrayList<>();
+        for (int i = 0; i <= 300; i++) {
+            tooMany.add(UUID.randomUUID());
+        }
+        assertThatThrownBy(() -> orderBatchService.rejectOrders(tooMany))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 300 orders can be processed at once");
+    }
+
+    @Test
+    void shouldNotDeadlockWithConcurrentSingleApprovals() throws Exception {
+        List<Product> contended = List.of(saveProduct("DL-1", 1000), saveProduct("DL-2", 1000),
+                saveProduct("DL-3", 1000));
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < 240; i++) {
+            orderIds.add(saveOrder(i % 2 == 0 ? buyer : otherBuyer, contended.get(i % 3), 1));
+        }
+        Collections.shuffle(orderIds);
+
+        // Eight batches of 20 in shuffled order, racing 80 single approvals over the same products
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int from = 0; from < 160; from += 20) {
+            List<UUID> batch = orderIds.subList(from, from + 20);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return orderBatchService.approveOrders(batch).getSucceeded();
+            }));
+        }
+        for (UUID orderId : orderIds.subList(160, 240)) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                orderService.approveOrder(orderId);
+                return 1;
+            }));
+        }
+        start.countDown();
+        int approved = 0;
+        for (Future<Integer> future : futures) {
+            approved += future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(approved).isEqualTo(240);
+        for (Product product : contended) {
+            assertThat(productRepository.findQuantityById(product.getId())).contains(920);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM user_inventory WHERE user_id IN (?, ?)",
+                Integer.class, buyer.getId(), otherBuyer.getId())).isEqualTo(240);
+    }
+
+    private User saveUser(String name) {
+        return userRepository.save(User.builder()
+                .username("batch-" + suffix + "-" + name)
+                .password("hash")
+                .role(UserRole.USER)
+                .build());
+    }
+
+    private Product saveProduct(String sku, int quantity) {
+        Product product = productRepository.save(Product.builder()
+                .sku("BATCH-" + sku + "-" + suffix)
+                .name("Batch " + sku)
+                .price(BigDecimal.ONE)
+                .quantity(quantity)
+                .status(ProductStatus.ACTIVE)
+                .build());
+        products.add(product);
+        return product;
+    }
+
+    private UUID saveOrder(User user, Product product, int quantity) {
+        return orderRepository.save(new Order(user, product, quantity, Order.OrderStatus.PENDING)).getId();
+    }
+}
@@ -0,0 +1,215 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.dto.OrderBatchResponse;
+import com.postqode.nexus.model.Order;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.OrderRepository;
+import com.postqode.nexus.repository.ProductRepository;
+import com.postqode.nexus.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stock reservations of PENDING orders: taken at creation, never more than the stock under
+ * concurrent creation, and released on reject, cancel and expiry. AvailableToPromiseBenchmark
+ * times the available-to-promise read against summing the pending orders. Not transactional:
+ * every call commits on its own connection.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderReservationIT {
+
+    private static final int STOCK = 50;
+    private static final int ATTEMPTS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderReservationSweeper orderReservationSweeper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+    private User buyer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        suffix = String.valueOf(System.nanoTime());
+        buyer = userRepository.save(User.builder()
+                .username("reserve-" + suffix)
+                .password("hash")
+                .role(UserRole.USER)
+                .build());
+        product = productRepository.save(Product.builder()
+                .sku("RESERVE-" + suffix)
+                .name("Reserved product")
+                .price(BigDecimal.ONE)
+                .quantity(STOCK)
+                .status(ProductStatus.ACTIVE)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_inventory WHERE product_id = ?", product.getId());
+        jdbcTemplate.update("DELETE FROM orders WHERE product_id = ?", product.getId());
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", product.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", buyer.getId());
+    }
+
+    @Test
+    void shouldReserveOnCreateAndReleaseOnRejectAndCancel() {
+        Order approved = orderService.createOrder(buyer.getId(), product.getId(), 10);
+        Order rejected = orderService.createOrder(buyer.getId(), product.getId(), 15);
+        Order cancelled = orderService.createOrder(buyer.getId(), product.getId(), 20);
+
+        assertThat(approved.getReservationExpiresAt()).isAfter(LocalDateTime.now().plusHours(47));
+        assertThat(reserved()).isEqualTo(45);
+        assertThat(productRepository.findAvailableQuantityById(product.getId())).contains(5);
+        assertThatThrownBy(() -> orderService.createOrder(buyer.getId(), product.getId(), 6))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Insufficient stock. Available: 5, Requested: 6");
+
+        orderService.approveOrder(approved.getId());
+        assertThat(productRepository.findQuantityById(product.getId())).contains(40);
+        assertThat(reserved()).isEqualTo(35);
+
+        orderService.rejectOrder(rejected.getId());
+        orderService.cancelOrder(cancelled.getId(), buyer.getId());
+        assertThat(reserved()).isZero();
+        assertThat(productRepository.findAvailableQuantityById(product.getId())).contains(40);
+        assertThat(orderRepository.findById(rejected.getId()).orElseThrow().getReservationExpiresAt()).isNull();
+    }
+
+    @Test
+    void batchShouldTakeAndReleaseReservations() {
+        UUID approved = orderService.createOrder(buyer.getId(), product.getId(), 30).getId();
+        UUID rejected = orderService.createOrder(buyer.getId(), product.getId(), 20).getId();
+        // Nothing left to promise, but the reserved order still gets its units
+        UUID unreserved = orderRepository.save(new Order(buyer, product, 1, Order.OrderStatus.PENDING)).getId();
+
+        assertThat(orderBatchService.approveOrders(List.of(unreserved, approved)).getResults())
+                .extracting(OrderBatchResponse.Result::getMessage)
+                .containsExactly("Insufficient stock. Available: 0, Requested: 1", null);
+        assertThat(productRepository.findQuantityById(product.getId())).contains(20);
+        assertThat(reserved()).isEqualTo(20);
+
+        orderBatchService.rejectOrders(List.of(rejected));
+        assertThat(reserved()).isZero();
+    }
+
+    @Test
+    void shouldNeverReserveMoreThanStockUnderConcurrentCreation() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    orderService.createOrder(buyer.getId(), product.getId(), 1);
+                    created.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    if (e.getMessage().startsWith("Insufficient stock")) {
+                        insufficient.incrementAndGet();
+                    } else {
+                        unexpected.add(e);
+                    }
+                } catch (RuntimeException e) {
+                    unexpected.add(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(unexpected).isEmpty();
+        assertThat(created.get()).isEqualTo(STOCK);
+        assertThat(insufficient.get()).isEqualTo(ATTEMPTS - STOCK);
+        assertThat(reserved()).isEqualTo(STOCK);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE product_id = ?",
+                Integer.class, product.getId())).isEqualTo(STOCK);
+    }
+
+    @Test
+    void sweeperShouldReleaseExpiredReservationsOnly() {
+        List<UUID> expired = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expired.add(orderService.createOrder(buyer.getId(), product.getId(), 2).getId());
+        }
+        UUID current = orderService.createOrder(buyer.getId(), product.getId(), 3).getId();
+        for (UUID orderId : expired) {
+            jdbcTemplate.update("UPDATE orders SET reservation_expires_at = ? WHERE id = ?",
+                    LocalDateTime.now().minusMinutes(1), orderId);
+        }
+
+        orderReservationSweeper.sweep(LocalDateTime.now());
+
+        assertThat(reserved()).isEqualTo(3);
+        for (UUID orderId : expired) {
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            assertThat(order.getStatus()).isEqualTo(Order.OrderStatus.PENDING);
+            assertThat(order.getReservationExpiresAt()).isNull();
+        }
+        assertThat(orderRepository.findById(current).orElseThrow().getReservationExpiresAt()).isNotNull();
+
+        // An expired order takes unreserved stock on approval; rejecting it releases nothing
+        orderService.approveOrder(expired.get(0));
+        orderService.rejectOrder(expired.get(1));
+        assertThat(productRepository.findQuantityById(product.getId())).contains(STOCK - 2);
+        assertThat(reserved()).isEqualTo(3);
+    }
+
+    private int reserved() {
+        return jdbcTemplate.queryForObject("SELECT reserved_quantity FROM products WHERE id = ?",
+                Integer.class, product.getId());
+    }
+}
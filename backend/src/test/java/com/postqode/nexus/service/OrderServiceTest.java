@@ -13,12 +13,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -47,6 +47,9 @@ public class OrderServiceTest {
     @Mock
     private UserInventoryService userInventoryService;
 
+    @Mock
+    private ProductCache productCache;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -75,15 +78,27 @@ public class OrderServiceTest {
         pendingOrder.setId(UUID.randomUUID());
     }
 
+    /**
+     * Stub a successful conditional status update and the re-read that follows it.
+     */
+    private void stubTransition(Order.OrderStatus target) {
+        when(orderRepository.transitionStatus(eq(pendingOrder.getId()), eq(Order.OrderStatus.PENDING),
+                eq(target), any())).thenReturn(1);
+        Order updated = new Order(testUser, testProduct, pendingOrder.getQuantity(), target);
+        updated.setId(pendingOrder.getId());
+        when(orderRepository.findByIdWithDetails(pendingOrder.getId())).thenReturn(Optional.of(updated));
+    }
+
     @Nested
     @DisplayName("Order Creation Tests")
     class CreateOrderTests {
 
         @Test
-        @DisplayName("Should create order in PENDING status")
+        @DisplayName("Should create order in PENDING status holding a stock reservation")
         void shouldCreateOrderInPendingStatus() {
-            when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
-            when(productRepository.findById(testProduct.getId())).thenReturn(Optional.of(testProduct));
+            when(productRepository.reserveStock(testProduct.getId(), 2)).thenReturn(1);
+            when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
+            when(productRepository.getReferenceById(testProduct.getId())).thenReturn(testProduct);
             when(orderRepository.save(any(Order.class))).thenAnswer(inv -> {
                 Order o = inv.getArgument(0);
                 o.setId(UUID.randomUUID());
@@ -95,15 +110,27 @@ public class OrderServiceTest {
             assertNotNull(result);
             assertEquals(Order.OrderStatus.PENDING, result.getStatus());
             assertEquals(2, result.getQuantity());
+            assertNotNull(result.getReservationExpiresAt());
             verify(orderRepository).save(any(Order.class));
+            verify(productCache).evict(testProduct.getId());
+        }
+
+        @Test
+        @DisplayName("Should refuse an order when the available stock cannot cover it")
+        void shouldRefuseOrderWhenStockCannotBeReserved() {
+            when(productRepository.reserveStock(testProduct.getId(), 5)).thenReturn(0);
+            when(productRepository.findAvailableQuantityById(testProduct.getId())).thenReturn(Optional.of(3));
+
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> orderService.createOrder(testUser.getId(), testProduct.getId(), 5));
+
+            assertEquals("Insufficient stock. Available: 3, Requested: 5", ex.getMessage());
+            verify(orderRepository, never()).save(any());
         }
 
         @Test
         @DisplayName("Should reject order with zero or negative quantity")
         void shouldRejectInvalidQuantity() {
-            when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
-            when(productRepository.findById(testProduct.getId())).thenReturn(Optional.of(testProduct));
-
             assertThrows(IllegalArgumentException.class,
                     () -> orderService.createOrder(testUser.getId(), testProduct.getId(), 0));
 
@@ -111,6 +138,7 @@ public class OrderServiceTest {
                     () -> orderService.createOrder(testUser.getId(), testProduct.getId(), -1));
 
             verify(orderRepository, never()).save(any());
+            verify(productRepository, never()).reserveStock(any(), anyInt());
         }
     }
 
@@ -121,20 +149,19 @@ public class OrderServiceTest {
         @Test
         @DisplayName("Should approve order, reduce stock, and add to user inventory")
         void shouldApproveAndReduceStock() {
-            int initialStock = testProduct.getQuantity();
-            when(orderRepository.findById(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
-            when(productRepository.save(any(Product.class))).thenReturn(testProduct);
-            when(orderRepository.save(any(Order.class))).thenReturn(pendingOrder);
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            stubTransition(Order.OrderStatus.APPROVED);
+            when(productRepository.decrementStock(testProduct.getId(), pendingOrder.getQuantity())).thenReturn(1);
 
             Order result = orderService.approveOrder(pendingOrder.getId());
 
             // Verify status changed to APPROVED
             assertEquals(Order.OrderStatus.APPROVED, result.getStatus());
 
-            // Verify stock was reduced
-            ArgumentCaptor<Product> productCaptor = ArgumentCaptor.forClass(Product.class);
-            verify(productRepository).save(productCaptor.capture());
-            assertEquals(initialStock - pendingOrder.getQuantity(), productCaptor.getValue().getQuantity());
+            // Verify stock was reduced atomically rather than by saving a read-modified entity
+            verify(productRepository).decrementStock(testProduct.getId(), pendingOrder.getQuantity());
+            verify(productRepository, never()).save(any());
+            verify(productCache).evict(testProduct.getId());
 
             // Verify item added to user inventory
             verify(userInventoryService).addPurchasedItem(
@@ -144,29 +171,59 @@ public class OrderServiceTest {
                     eq(pendingOrder.getQuantity()));
         }
 
+        @Test
+        @DisplayName("Should turn a held reservation into a sale")
+        void shouldTakeReservedStockWhenReservationHeld() {
+            pendingOrder.setReservationExpiresAt(LocalDateTime.now().plusHours(1));
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            stubTransition(Order.OrderStatus.APPROVED);
+            when(productRepository.takeReservedStock(testProduct.getId(), pendingOrder.getQuantity())).thenReturn(1);
+
+            orderService.approveOrder(pendingOrder.getId());
+
+            verify(productRepository).takeReservedStock(testProduct.getId(), pendingOrder.getQuantity());
+            verify(productRepository, never()).decrementStock(any(), anyInt());
+        }
+
         @Test
         @DisplayName("Should reject approval when insufficient stock")
         void shouldRejectApprovalWithInsufficientStock() {
-            testProduct.setQuantity(1); // Less than order quantity of 2
-            when(orderRepository.findById(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            when(orderRepository.transitionStatus(eq(pendingOrder.getId()), eq(Order.OrderStatus.PENDING),
+                    eq(Order.OrderStatus.APPROVED), any())).thenReturn(1);
+            when(productRepository.decrementStock(testProduct.getId(), pendingOrder.getQuantity())).thenReturn(0);
+            when(productRepository.findAvailableQuantityById(testProduct.getId())).thenReturn(Optional.of(1));
 
             IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                     () -> orderService.approveOrder(pendingOrder.getId()));
 
             assertTrue(ex.getMessage().contains("Insufficient stock"));
+            assertTrue(ex.getMessage().contains("Available: 1"));
             verify(productRepository, never()).save(any());
-            verify(userInventoryService, never()).addPurchasedItem(any(), any(), any(), anyInt());
         }
 
         @Test
         @DisplayName("Should reject approval of non-PENDING orders")
         void shouldRejectApprovalOfNonPendingOrders() {
             pendingOrder.setStatus(Order.OrderStatus.APPROVED);
-            when(orderRepository.findById(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
 
             assertThrows(IllegalArgumentException.class, () -> orderService.approveOrder(pendingOrder.getId()));
 
-            verify(productRepository, never()).save(any());
+            verify(productRepository, never()).decrementStock(any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should not touch stock when a concurrent transaction claimed the order first")
+        void shouldRejectApprovalWhenOrderClaimedConcurrently() {
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            when(orderRepository.transitionStatus(eq(pendingOrder.getId()), eq(Order.OrderStatus.PENDING),
+                    eq(Order.OrderStatus.APPROVED), any())).thenReturn(0);
+
+            assertThrows(IllegalArgumentException.class, () -> orderService.approveOrder(pendingOrder.getId()));
+
+            verify(productRepository, never()).decrementStock(any(), anyInt());
+            verify(userInventoryService, never()).addPurchasedItem(any(), any(), any(), anyInt());
         }
     }
 
@@ -177,14 +234,29 @@ public class OrderServiceTest {
         @Test
         @DisplayName("Should reject order without affecting stock")
         void shouldRejectWithoutAffectingStock() {
-            when(orderRepository.findById(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
-            when(orderRepository.save(any(Order.class))).thenReturn(pendingOrder);
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            stubTransition(Order.OrderStatus.REJECTED);
 
             Order result = orderService.rejectOrder(pendingOrder.getId());
 
             assertEquals(Order.OrderStatus.REJECTED, result.getStatus());
             // Stock should NOT be modified
-            verify(productRepository, never()).save(any());
+            verify(productRepository, never()).decrementStock(any(), anyInt());
+            verify(productRepository, never()).releaseReservedStock(any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should release the stock the order held reserved")
+        void shouldReleaseReservation() {
+            pendingOrder.setReservationExpiresAt(LocalDateTime.now().plusHours(1));
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            stubTransition(Order.OrderStatus.REJECTED);
+
+            orderService.rejectOrder(pendingOrder.getId());
+
+            verify(productRepository).releaseReservedStock(testProduct.getId(), pendingOrder.getQuantity());
+            verify(productRepository, never()).decrementStock(any(), anyInt());
+            verify(productCache).evict(testProduct.getId());
         }
     }
 
@@ -195,8 +267,8 @@ public class OrderServiceTest {
         @Test
         @DisplayName("Should allow user to cancel their own PENDING order")
         void shouldAllowUserToCancelOwnOrder() {
-            when(orderRepository.findById(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
-            when(orderRepository.save(any(Order.class))).thenReturn(pendingOrder);
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            stubTransition(Order.OrderStatus.CANCELLED);
 
             Order result = orderService.cancelOrder(pendingOrder.getId(), testUser.getId());
 
@@ -207,24 +279,24 @@ public class OrderServiceTest {
         @DisplayName("Should prevent user from cancelling another user's order")
         void shouldPreventCancellingOthersOrders() {
             UUID otherUserId = UUID.randomUUID();
-            when(orderRepository.findById(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
 
             assertThrows(IllegalArgumentException.class,
                     () -> orderService.cancelOrder(pendingOrder.getId(), otherUserId));
 
-            verify(orderRepository, never()).save(any());
+            verify(orderRepository, never()).transitionStatus(any(), any(), any(), any());
         }
 
         @Test
         @DisplayName("Should prevent cancellation of non-PENDING orders")
         void shouldPreventCancellingNonPendingOrders() {
             pendingOrder.setStatus(Order.OrderStatus.APPROVED);
-            when(orderRepository.findById(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
+            when(orderRepository.findByIdForUpdate(pendingOrder.getId())).thenReturn(Optional.of(pendingOrder));
 
             assertThrows(IllegalArgumentException.class,
                     () -> orderService.cancelOrder(pendingOrder.getId(), testUser.getId()));
 
-            verify(orderRepository, never()).save(any());
+            verify(orderRepository, never()).transitionStatus(any(), any(), any(), any());
         }
     }
 }
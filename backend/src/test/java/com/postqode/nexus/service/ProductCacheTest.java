@@ -0,0 +1,139 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductCache.
+ */
+public class ProductCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    private final ProductCache cache = new ProductCache(registry, invalidationBus, true, 1_000_000, 2_000, 60_000);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Function<UUID, Optional<ProductResponse>> loader(ProductResponse product) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(product);
+        };
+    }
+
+    private static ProductResponse product(UUID id, String description) {
+        return ProductResponse.builder().id(id).sku("SKU").name("Name").description(description).build();
+    }
+
+    @Test
+    void shouldServeRepeatReadsFromCacheAndRecordMetrics() {
+        UUID id = UUID.randomUUID();
+        ProductResponse product = product(id, "short");
+
+        assertSame(product, cache.get(id, loader(product)).orElseThrow());
+        assertSame(product, cache.get(id, loader(product)).orElseThrow());
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void shouldNotCacheMissingOrOversizedProducts() {
+        UUID missing = UUID.randomUUID();
+        assertTrue(cache.get(missing, loader(null)).isEmpty());
+        assertTrue(cache.get(missing, loader(null)).isEmpty());
+
+        UUID large = UUID.randomUUID();
+        ProductResponse product = product(large, "x".repeat(5_000));
+        cache.get(large, loader(product));
+        cache.get(large, loader(product));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void shouldEvictOnlyAfterCommit() {
+        UUID id = UUID.randomUUID();
+        ProductResponse product = product(id, "short");
+        cache.get(id, loader(product));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(id);
+            cache.get(id, loader(product));
+            assertEquals(1, loads.get(), "still cached until the transaction commits");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        cache.get(id, loader(product));
+        assertEquals(2, loads.get());
+        verify(invalidationBus).publish(CacheInvalidationBus.Topic.PRODUCT, id.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldDropEntriesInvalidatedByOtherNodes() {
+        ArgumentCaptor<Consumer<String>> subscriber = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).subscribe(eq(CacheInvalidationBus.Topic.PRODUCT), subscriber.capture());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        cache.get(first, loader(product(first, "short")));
+        cache.get(second, loader(product(second, "short")));
+
+        subscriber.getValue().accept(first.toString());
+        cache.get(first, loader(product(first, "short")));
+        cache.get(second, loader(product(second, "short")));
+        assertEquals(3, loads.get());
+
+        subscriber.getValue().accept(null);
+        cache.get(second, loader(product(second, "short")));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void loadOverlappingAnEvictionShouldNotRecacheTheOldRow() throws Exception {
+        UUID id = UUID.randomUUID();
+        ProductResponse before = product(id, "before");
+        ProductResponse after = product(id, "after");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        // Read the row before updateProduct commits, finish after its eviction
+        CompletableFuture<Optional<ProductResponse>> inFlight = CompletableFuture.supplyAsync(() ->
+                cache.get(id, key -> {
+                    loading.countDown();
+                    try {
+                        assertTrue(evicted.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return Optional.of(before);
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.evict(id);
+        evicted.countDown();
+
+        assertSame(before, inFlight.get(5, TimeUnit.SECONDS).orElseThrow(), "the in-flight load still answers its own request");
+        assertSame(after, cache.get(id, loader(after)).orElseThrow(), "but its stale row was not cached");
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,149 @@
+package com.postqode.nexus.service;
+
+import com.postqode.nexus.dto.ProductCursorPage;
+import com.postqode.nexus.dto.ProductResponse;
+import com.postqode.nexus.model.Category;
+import com.postqode.nexus.model.Product;
+import com.postqode.nexus.model.ProductStatus;
+import com.postqode.nexus.model.User;
+import com.postqode.nexus.model.UserRole;
+import com.postqode.nexus.repository.CategoryRepository;
+import com.postqode.nexus.repository.ProductRepository;
+import com.postqode.nexus.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies the product read path issues a fixed number of statements per page,
+ * regardless of how many distinct categories and audit users the page references.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ProductServiceIT {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Product sample;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        // Distinct category and creator per product so any lazy load would show up as extra statements
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Category category = categoryRepository.save(new Category("qc-cat-" + suffix + "-" + i, null));
+            User user = userRepository.save(User.builder()
+                    .username("qc-user-" + suffix + "-" + i)
+                    .password("hash")
+                    .role(UserRole.USER)
+                    .build());
+            sample = productRepository.save(Product.builder()
+                    .sku("QC-" + suffix + "-" + i)
+                    .name("Query count " + i)
+                    .price(BigDecimal.TEN)
+                    .quantity(25)
+                    .status(ProductStatus.ACTIVE)
+                    .category(category)
+                    .createdBy(user)
+                    .updatedBy(user)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Offset page: one content statement plus the count")
+    void offsetPageUsesContentAndCountStatementsOnly() {
+        Page<ProductResponse> page = productService.getProducts(null, null, null,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(product -> {
+            assertThat(product.getCategoryName()).isNotNull();
+            assertThat(product.getCreatedBy()).isNotNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Ranked search page: one content statement plus the count")
+    void searchPageUsesContentAndCountStatementsOnly() {
+        Page<ProductResponse> page = productService.getProducts(null, null, "query count",
+                PageRequest.of(0, PAGE_SIZE));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent().get(0).getUpdatedBy()).startsWith("qc-user-");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Cursor window: exactly one statement")
+    void cursorWindowUsesSingleStatement() {
+        ProductCursorPage window = productService.getProductsByCursor(null, null, null, null, PAGE_SIZE,
+                Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        assertThat(window.getItems()).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Cursor sort columns reject NULL, so every row has a cursor value")
+    void cursorSortColumnsAreNotNullable() {
+        assertThatThrownBy(() -> entityManager.createNativeQuery(
+                "INSERT INTO products (sku, name, price, quantity, status, created_at) "
+                        + "VALUES ('QC-NULL-' || gen_random_uuid(), 'Null created', 1, 1, 'ACTIVE', NULL)")
+                .executeUpdate())
+                .rootCause()
+                .hasMessageContaining("null value in column \"created_at\"");
+    }
+
+    @Test
+    @DisplayName("Single product: exactly one statement")
+    void singleProductUsesSingleStatement() {
+        ProductResponse product = productService.getProduct(sample.getId());
+
+        assertThat(product.getCategoryName()).startsWith("qc-cat-");
+        assertThat(product.getCreatedBy()).startsWith("qc-user-");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
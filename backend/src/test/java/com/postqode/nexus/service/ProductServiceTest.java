@@ -1,12 +1,14 @@
 package com.postqode.nexus.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postqode.nexus.dto.ProductCursorPage;
 import com.postqode.nexus.dto.ProductRequest;
 import com.postqode.nexus.dto.ProductResponse;
 import com.postqode.nexus.model.*;
 import com.postqode.nexus.repository.ActivityLogRepository;
 import com.postqode.nexus.repository.ProductRepository;
-import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.repository.ProductSearchResult;
+import com.postqode.nexus.security.CurrentUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,13 +17,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,7 +44,13 @@ public class ProductServiceTest {
     private ActivityLogRepository activityLogRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private CurrentUser currentUser;
+
+    @Mock
+    private ActivityLogWriter activityLogWriter;
+
+    @Mock
+    private ProductCache productCache;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
@@ -48,33 +58,18 @@ public class ProductServiceTest {
     @InjectMocks
     private ProductService productService;
 
-    @Mock
-    private SecurityContext securityContext;
-
-    @Mock
-    private Authentication authentication;
-
-    @Mock
-    private UserDetails userDetails;
-
     private User adminUser;
     private Product existingProduct;
 
     @BeforeEach
     void setUp() {
-        // Setup Security Context
-        SecurityContextHolder.setContext(securityContext);
-        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
-        lenient().when(authentication.getPrincipal()).thenReturn(userDetails);
-        lenient().when(userDetails.getUsername()).thenReturn("admin");
-
         adminUser = User.builder()
                 .id(UUID.randomUUID())
                 .username("admin")
                 .role(UserRole.ADMIN)
                 .build();
 
-        lenient().when(userRepository.findByUsername("admin")).thenReturn(Optional.of(adminUser));
+        lenient().when(currentUser.getReference()).thenReturn(adminUser);
 
         existingProduct = Product.builder()
                 .id(UUID.randomUUID())
@@ -108,14 +103,10 @@ public class ProductServiceTest {
         verify(productRepository).save(any(Product.class));
 
         // Verify Activity Log
-        ArgumentCaptor<ActivityLog> logCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(logCaptor.capture());
-        ActivityLog log = logCaptor.getValue();
-
-        assertEquals(ActionType.CREATE, log.getActionType());
-        assertNotNull(log.getProduct());
-        assertNotNull(log.getNewValue());
-        assertNull(log.getOldValue());
+        ArgumentCaptor<Object> newValue = ArgumentCaptor.forClass(Object.class);
+        verify(activityLogWriter).record(eq(adminUser), any(Product.class), eq(ActionType.CREATE), isNull(),
+                newValue.capture());
+        assertNotNull(newValue.getValue());
     }
 
     @Test
@@ -134,20 +125,18 @@ public class ProductServiceTest {
         productService.updateProduct(existingProduct.getId(), request);
 
         verify(productRepository).save(any(Product.class));
+        verify(productCache).evict(existingProduct.getId());
 
         // Verify Activity Log
-        ArgumentCaptor<ActivityLog> logCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(logCaptor.capture());
-        ActivityLog log = logCaptor.getValue();
-
-        assertEquals(ActionType.UPDATE, log.getActionType());
-        assertEquals(existingProduct, log.getProduct());
-        assertNotNull(log.getOldValue(), "Old value should not be null");
-        assertNotNull(log.getNewValue(), "New value should not be null");
-
-        // Ensure values are Maps (serialized safe objects)
-        assertTrue(log.getOldValue() instanceof Map);
-        assertTrue(log.getNewValue() instanceof Map);
+        ArgumentCaptor<Object> oldValue = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<Object> newValue = ArgumentCaptor.forClass(Object.class);
+        verify(activityLogWriter).record(eq(adminUser), eq(existingProduct), eq(ActionType.UPDATE),
+                oldValue.capture(), newValue.capture());
+
+        // Ensure values are detached snapshots, not the managed entity
+        assertTrue(oldValue.getValue() instanceof ProductResponse, "Old value should be a snapshot");
+        assertTrue(newValue.getValue() instanceof ProductResponse, "New value should be a snapshot");
+        assertEquals("Updated Name", ((ProductResponse) newValue.getValue()).getName());
     }
 
     @Test
@@ -157,17 +146,14 @@ public class ProductServiceTest {
         productService.deleteProduct(existingProduct.getId());
 
         verify(productRepository).delete(existingProduct);
+        verify(productCache).evict(existingProduct.getId());
 
         // Verify Activity Log
-        ArgumentCaptor<ActivityLog> logCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(logCaptor.capture());
-        ActivityLog log = logCaptor.getValue();
-
-        assertEquals(ActionType.DELETE, log.getActionType());
         // CRITICAL: Product reference in log must be NULL to avoid FK violation
-        assertNull(log.getProduct(), "Product reference in log must be null for DELETE action");
-        assertNotNull(log.getOldValue(), "Old value should be preserved");
-        assertNull(log.getNewValue(), "New value should be null");
+        ArgumentCaptor<Object> oldValue = ArgumentCaptor.forClass(Object.class);
+        verify(activityLogWriter).record(eq(adminUser), isNull(), eq(ActionType.DELETE), oldValue.capture(),
+                isNull());
+        assertNotNull(oldValue.getValue(), "Old value should be preserved");
     }
 
     @Test
@@ -178,15 +164,70 @@ public class ProductServiceTest {
         productService.updateStatus(existingProduct.getId(), ProductStatus.OUT_OF_STOCK);
 
         verify(productRepository).save(existingProduct);
+        verify(productCache).evict(existingProduct.getId());
 
         // Verify Activity Log
-        ArgumentCaptor<ActivityLog> logCaptor = ArgumentCaptor.forClass(ActivityLog.class);
-        verify(activityLogRepository).save(logCaptor.capture());
-        ActivityLog log = logCaptor.getValue();
-
-        assertEquals(ActionType.STATE_CHANGE, log.getActionType());
-        assertEquals(existingProduct, log.getProduct());
-        assertNotNull(log.getOldValue());
-        assertNotNull(log.getNewValue());
+        verify(activityLogWriter).record(eq(adminUser), eq(existingProduct), eq(ActionType.STATE_CHANGE),
+                notNull(), notNull());
+    }
+
+    @Test
+    void shouldUseRankedSearchForUnsortedSearch() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ProductSearchResult row = mock(ProductSearchResult.class);
+        when(row.getSku()).thenReturn("SKU-001");
+        when(row.getCategoryName()).thenReturn("Peripherals");
+        when(productRepository.searchRanked("Mouse", "%mouse%", "ACTIVE", null, pageable))
+                .thenReturn(new PageImpl<>(List.of(row), pageable, 1));
+
+        Page<ProductResponse> result = productService.getProducts(ProductStatus.ACTIVE, null, " Mouse ", pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("SKU-001", result.getContent().get(0).getSku());
+        assertEquals("Peripherals", result.getContent().get(0).getCategoryName());
+        verify(productRepository, never()).findResponses(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepFilterPathWhenSearchIsExplicitlySorted() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("name"));
+        when(productRepository.findResponses(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(ProductResponse.builder().sku("SKU-001").build()), pageable, 1));
+
+        productService.getProducts(null, null, "mouse", pageable);
+
+        verify(productRepository, never()).searchRanked(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReturnNextCursorWithoutCounting() {
+        ProductResponse first = ProductResponse.builder().id(UUID.randomUUID()).sku("SKU-001").build();
+        ProductResponse second = ProductResponse.builder().id(UUID.randomUUID()).sku("SKU-002").build();
+        ProductResponse third = ProductResponse.builder().id(UUID.randomUUID()).sku("SKU-003").build();
+        when(productRepository.findResponses(any(Specification.class), any(Sort.class), eq(3)))
+                .thenReturn(List.of(first, second, third));
+
+        ProductCursorPage page = productService.getProductsByCursor(null, null, null, null, 2, Sort.by("sku"));
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasNext());
+        assertNotNull(page.getNextCursor());
+        verify(productRepository, never()).count(any(Specification.class));
+
+        ProductCursor decoded = ProductCursor.decode(page.getNextCursor(), objectMapper);
+        assertEquals("sku", decoded.getProperty());
+        assertEquals(Sort.Direction.ASC, decoded.getDirection());
+        assertEquals("SKU-002", decoded.typedValue());
+        assertEquals(second.getId(), decoded.getLastId());
+    }
+
+    @Test
+    void shouldRejectUnsupportedCursorSortAndTamperedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductsByCursor(null, null, null, null, 10, Sort.by("description")));
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductsByCursor(null, null, null, "bm90LWpzb24", 10, Sort.unsorted()));
     }
 }
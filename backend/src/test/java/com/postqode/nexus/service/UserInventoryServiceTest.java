@@ -5,7 +5,6 @@ import com.postqode.nexus.model.ProductStatus;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.model.UserInventory;
 import com.postqode.nexus.model.UserRole;
-import com.postqode.nexus.repository.ProductRepository;
 import com.postqode.nexus.repository.UserInventoryRepository;
 import com.postqode.nexus.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,6 +22,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -38,9 +38,6 @@ public class UserInventoryServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @Mock
-    private ProductRepository productRepository;
-
     @InjectMocks
     private UserInventoryService userInventoryService;
 
@@ -89,7 +86,7 @@ public class UserInventoryServiceTest {
         @Test
         @DisplayName("Should add manual inventory item")
         void shouldAddManualItem() {
-            when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+            when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
             when(userInventoryRepository.save(any(UserInventory.class))).thenAnswer(inv -> {
                 UserInventory item = inv.getArgument(0);
                 item.setId(UUID.randomUUID());
@@ -135,22 +132,13 @@ public class UserInventoryServiceTest {
     class PurchasedItemTests {
 
         @Test
-        @DisplayName("Should add purchased item from approved order")
+        @DisplayName("Should merge purchased item with a single upsert")
         void shouldAddPurchasedItem() {
-            when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
-            when(productRepository.findById(testProduct.getId())).thenReturn(Optional.of(testProduct));
-            when(userInventoryRepository.save(any(UserInventory.class))).thenAnswer(inv -> {
-                UserInventory item = inv.getArgument(0);
-                item.setId(UUID.randomUUID());
-                return item;
-            });
-
-            UserInventory result = userInventoryService.addPurchasedItem(
-                    testUser.getId(), testProduct.getId(), testProduct.getName(), 2);
+            userInventoryService.addPurchasedItem(testUser.getId(), testProduct.getId(), testProduct.getName(), 2);
 
-            assertNotNull(result);
-            assertEquals(UserInventory.InventorySource.PURCHASED, result.getSource());
-            assertEquals(testProduct.getName(), result.getName());
+            verify(userInventoryRepository).upsertPurchased(
+                    testUser.getId(), testProduct.getId(), testProduct.getName(), 2, "Purchased via order");
+            verifyNoInteractions(userRepository);
         }
 
         @Test
@@ -210,7 +198,7 @@ public class UserInventoryServiceTest {
         @Test
         @DisplayName("Should reject invalid quantity")
         void shouldRejectInvalidQuantity() {
-            when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+            when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
 
             assertThrows(IllegalArgumentException.class,
                     () -> userInventoryService.addManualItem(testUser.getId(), "Item", 0, ""));
@@ -219,4 +207,35 @@ public class UserInventoryServiceTest {
                     () -> userInventoryService.addManualItem(testUser.getId(), "Item", -1, ""));
         }
     }
+
+    @Nested
+    @DisplayName("Consumption Tests")
+    class ConsumptionTests {
+
+        @Test
+        @DisplayName("Should remove item when consumption reaches zero")
+        void shouldRemoveItemWhenEmptied() {
+            purchasedItem.setQuantity(0);
+            when(userInventoryRepository.consume(purchasedItem.getId(), testUser.getId(), 2))
+                    .thenReturn(Optional.of(purchasedItem));
+
+            assertNull(userInventoryService.consumeInventoryItem(purchasedItem.getId(), testUser.getId(), 2));
+            verify(userInventoryRepository).deleteIfEmpty(purchasedItem.getId());
+        }
+
+        @Test
+        @DisplayName("Should explain why a consumption was rejected")
+        void shouldExplainRejectedConsumption() {
+            when(userInventoryRepository.consume(any(), any(), anyInt())).thenReturn(Optional.empty());
+            when(userInventoryRepository.findById(purchasedItem.getId())).thenReturn(Optional.of(purchasedItem));
+
+            IllegalArgumentException tooMuch = assertThrows(IllegalArgumentException.class,
+                    () -> userInventoryService.consumeInventoryItem(purchasedItem.getId(), testUser.getId(), 3));
+            assertEquals("Cannot consume more than available quantity (2)", tooMuch.getMessage());
+
+            IllegalArgumentException notOwner = assertThrows(IllegalArgumentException.class,
+                    () -> userInventoryService.consumeInventoryItem(purchasedItem.getId(), otherUser.getId(), 1));
+            assertEquals("You can only consume your own inventory items", notOwner.getMessage());
+        }
+    }
 }
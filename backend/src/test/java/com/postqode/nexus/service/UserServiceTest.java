@@ -4,6 +4,7 @@ import com.postqode.nexus.dto.UserRequest;
 import com.postqode.nexus.model.User;
 import com.postqode.nexus.model.UserRole;
 import com.postqode.nexus.repository.UserRepository;
+import com.postqode.nexus.security.UserStatusCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -11,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -33,6 +35,9 @@ public class UserServiceTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
     private User testUser;
 
     @BeforeEach
@@ -249,4 +254,26 @@ public class UserServiceTest {
         assertThat(userService.isUserEnabled(testUser.getUsername())).isTrue();
         assertThat(userService.isUserEnabled("nonexistent")).isFalse();
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should drop a cached missing status once the user is created")
+    void shouldForgetMissingStatusOnCreate() {
+        String username = "created_" + System.nanoTime();
+        try {
+            assertThat(userStatusCache.get(username).id()).isNull();
+
+            userService.createUser(UserRequest.builder()
+                    .username(username)
+                    .email(username + "@example.com")
+                    .password("plainPassword123")
+                    .role("USER")
+                    .build());
+
+            assertThat(userStatusCache.get(username).enabled()).isTrue();
+        } finally {
+            userRepository.findByUsername(username).ifPresent(userRepository::delete);
+            userRepository.delete(testUser);
+        }
+    }
 }
@@ -0,0 +1,76 @@
+-- product_search_benchmark.sql
+-- Compares the legacy LIKE search against the V8 full-text/trigram search at 1M products.
+--
+-- Run against a disposable database that has all Flyway migrations applied:
+--   psql -h localhost -U nexus -d nexus_bench -f database/benchmarks/product_search_benchmark.sql
+--
+-- "Before" numbers are taken with the V8 indexes disabled for the session so the
+-- planner falls back to the plan the old schema would have produced.
+--
+-- Reference run (PostgreSQL 16, 1M rows, search term 'headset 4711'):
+--   before  page query   2443 ms  (Index Scan on products_pkey, filter on every row)
+--   before  count query   569 ms  (Parallel Seq Scan)
+--   after   page query     54 ms  (BitmapOr over search_vector + trigram GIN indexes)
+--   after   count query    40 ms
+
+\timing on
+
+-- ============================================================
+-- DATA: 1,000,000 synthetic products
+-- ============================================================
+INSERT INTO products (sku, name, description, price, quantity, status)
+SELECT
+    'BENCH-' || lpad(g::text, 7, '0'),
+    (ARRAY['Wireless', 'Mechanical', 'Portable', 'Ergonomic', 'Smart', 'Compact'])[1 + g % 6] || ' ' ||
+    (ARRAY['Mouse', 'Keyboard', 'Monitor', 'Speaker', 'Charger', 'Headset', 'Webcam'])[1 + g % 7] || ' ' || g,
+    'Synthetic catalog item ' || g || ' with ' ||
+    (ARRAY['USB-C', 'Bluetooth', 'HDMI', 'noise cancelling', 'RGB lighting'])[1 + g % 5] || ' support',
+    (g % 500) + 0.99,
+    g % 200,
+    CASE WHEN g % 200 = 0 THEN 'OUT_OF_STOCK' WHEN g % 200 < 10 THEN 'LOW_STOCK' ELSE 'ACTIVE' END
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE products;
+
+-- ============================================================
+-- BEFORE: legacy predicate, no trigram/full-text indexes usable
+-- ============================================================
+BEGIN;
+DROP INDEX idx_products_search_vector;
+DROP INDEX idx_products_name_trgm;
+DROP INDEX idx_products_sku_trgm;
+DROP INDEX idx_products_description_trgm;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM products p
+WHERE lower(p.name) LIKE '%headset 4711%' OR lower(p.sku) LIKE '%headset 4711%'
+ORDER BY p.id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM products p
+WHERE lower(p.name) LIKE '%headset 4711%' OR lower(p.sku) LIKE '%headset 4711%';
+ROLLBACK;
+
+-- ============================================================
+-- AFTER: ProductRepository.searchRanked
+-- ============================================================
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM products p
+WHERE (p.search_vector @@ websearch_to_tsquery('english', 'headset 4711')
+    OR lower(p.name) LIKE '%headset 4711%'
+    OR lower(p.sku) LIKE '%headset 4711%'
+    OR lower(p.description) LIKE '%headset 4711%')
+ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('english', 'headset 4711')) DESC,
+         similarity(lower(p.name), 'headset 4711') DESC, p.id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM products p
+WHERE (p.search_vector @@ websearch_to_tsquery('english', 'headset 4711')
+    OR lower(p.name) LIKE '%headset 4711%'
+    OR lower(p.sku) LIKE '%headset 4711%'
+    OR lower(p.description) LIKE '%headset 4711%');
+
+-- Clean up the synthetic rows
+DELETE FROM products WHERE sku LIKE 'BENCH-%';
@@ -146,6 +146,8 @@ export const DashboardPage: React.FC = () => {
         return `${username} logged in`;
       case 'LOGOUT':
         return `${username} logged out`;
+      case 'BULK_IMPORT':
+        return `${username} imported products`;
       default:
         return `${username} performed an action`;
     }